@@ -1,9 +1,15 @@
 package ar.utn.hotel;
 
+import ar.utn.hotel.disponibilidad.ActualizadorOcupacionDiaria;
+import ar.utn.hotel.gestor.GestorHabitacion;
+import ar.utn.hotel.services.InicializadorDatos;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import utils.EjecutorGestores;
 import utils.GeorefLoader;
+import utils.HibernateUtil;
+import utils.HiloFx;
 import utils.SceneManager;
 
 public class  HotelPremier extends Application {
@@ -14,6 +20,8 @@ public class  HotelPremier extends Application {
     public void start(Stage stage) {
 
         GeorefLoader.cargarTodo();
+        ActualizadorOcupacionDiaria.registrar();
+        precargarDisponibilidad();
         precargarEscenas();
 
         mainScene = new Scene(SceneManager.getRoot("menu"));
@@ -25,6 +33,31 @@ public class  HotelPremier extends Application {
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        EjecutorGestores.cerrar();
+    }
+
+    private void precargarDisponibilidad() {
+        // Los catálogos, el estado actual de cada habitación y el calendario de
+        // disponibilidad se arman en segundo plano para no demorar el arranque
+        EjecutorGestores.ejecutarAccion(() -> {
+            // Una base local vacía se siembra antes de armar el resto
+            if (HibernateUtil.getPerfil().isSembrarAlIniciar()) {
+                new InicializadorDatos().inicializarSiVacia();
+            }
+
+            GestorHabitacion gestorHabitacion = new GestorHabitacion();
+            gestorHabitacion.refrescarCatalogos();
+            gestorHabitacion.sincronizarEstadosActuales();
+            gestorHabitacion.reconstruirCalendarioDisponibilidad();
+        }).exceptionally(error -> {
+            System.err.println("Error al construir el calendario de disponibilidad: "
+                    + HiloFx.causaReal(error).getMessage());
+            return null;
+        });
+    }
+
     private void precargarEscenas (){
         // Escenas que se precargan (estáticas, no cambian)
         SceneManager.precargarEscena("menu", "/views/interfaces/menu-principal/menu-principal.fxml");
@@ -0,0 +1,209 @@
+package ar.utn.hotel.dao.implement;
+
+import ar.utn.hotel.model.TipoEstado;
+import ar.utn.hotel.model.TipoHabitacion;
+import enums.EstadoHab;
+import org.hibernate.Session;
+import utils.EstadisticasCatalogo;
+import utils.HibernateUtil;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copia en memoria de los catálogos TipoEstado y TipoHabitacion, compartida por
+ * toda la aplicación. Los catálogos tienen pocas filas y casi nunca cambian: se
+ * leen de la base una sola vez y desde ahí cada búsqueda se resuelve en memoria.
+ *
+ * Cada carga arma una foto inmutable que se publica de una vez, así que los lectores
+ * nunca ven una foto a medio armar. La foto guarda sólo los valores de cada fila;
+ * cada consulta devuelve entidades nuevas, desacopladas de cualquier sesión, que el
+ * llamador puede modificar sin afectar a la caché ni a otros hilos. Los DAO de catálogo
+ * llaman a invalidar() después de cada alta, modificación o baja, y refrescar() fuerza
+ * una recarga.
+ */
+public class CatalogoCache {
+
+    private static final CatalogoCache INSTANCIA = new CatalogoCache();
+
+    private volatile Foto foto;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+
+    private CatalogoCache() {
+    }
+
+    public static CatalogoCache getInstancia() {
+        return INSTANCIA;
+    }
+
+    // ========== CONSULTAS ==========
+
+    public TipoEstado tipoEstado(EstadoHab estado) {
+        return copia(registrar(fotoActual().tiposEstado.get(estado)));
+    }
+
+    public TipoEstado tipoEstadoPorId(Integer id) {
+        return copia(registrar(fotoActual().tiposEstadoPorId.get(id)));
+    }
+
+    public List<TipoEstado> tiposEstado() {
+        aciertos.increment();
+        return fotoActual().listaTiposEstado.stream()
+                .map(CatalogoCache::copia)
+                .toList();
+    }
+
+    public TipoHabitacion tipoHabitacion(String nombre) {
+        return copia(registrar(fotoActual().tiposHabitacion.get(nombre)));
+    }
+
+    public TipoHabitacion tipoHabitacionPorId(Integer id) {
+        return copia(registrar(fotoActual().tiposHabitacionPorId.get(id)));
+    }
+
+    public List<TipoHabitacion> tiposHabitacion() {
+        aciertos.increment();
+        return fotoActual().listaTiposHabitacion.stream()
+                .map(CatalogoCache::copia)
+                .toList();
+    }
+
+    // ========== MANTENIMIENTO ==========
+
+    /**
+     * Descarta la foto actual; la próxima consulta vuelve a leer los catálogos
+     */
+    public void invalidar() {
+        foto = null;
+    }
+
+    /**
+     * Recarga los catálogos desde la base en este momento
+     */
+    public synchronized void refrescar() {
+        foto = cargar();
+    }
+
+    public EstadisticasCatalogo getEstadisticas() {
+        Foto actual = foto;
+        return EstadisticasCatalogo.builder()
+                .aciertos(aciertos.sum())
+                .fallos(fallos.sum())
+                .cargas(cargas.sum())
+                .tiposEstado(actual != null ? actual.listaTiposEstado.size() : 0)
+                .tiposHabitacion(actual != null ? actual.listaTiposHabitacion.size() : 0)
+                .build();
+    }
+
+    // ========== CARGA ==========
+
+    private Foto fotoActual() {
+        Foto actual = foto;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (this) {
+            if (foto == null) {
+                foto = cargar();
+            }
+            return foto;
+        }
+    }
+
+    /**
+     * Un valor ausente cuenta como fallo: el catálogo en memoria no tiene la clave pedida
+     */
+    private <T> T registrar(T valor) {
+        if (valor != null) {
+            aciertos.increment();
+        } else {
+            fallos.increment();
+        }
+        return valor;
+    }
+
+    private static TipoEstado copia(FilaTipoEstado fila) {
+        if (fila == null) {
+            return null;
+        }
+        return TipoEstado.builder()
+                .id(fila.id())
+                .estado(fila.estado())
+                .build();
+    }
+
+    private static TipoHabitacion copia(FilaTipoHabitacion fila) {
+        if (fila == null) {
+            return null;
+        }
+        return TipoHabitacion.builder()
+                .idTipoHabitacion(fila.id())
+                .nombre(fila.nombre())
+                .descripcion(fila.descripcion())
+                .capacidad(fila.capacidad())
+                .costoNoche(fila.costoNoche())
+                .build();
+    }
+
+    private Foto cargar() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            List<TipoEstado> estados = session.createQuery(
+                            "FROM TipoEstado te ORDER BY te.estado", TipoEstado.class)
+                    .setReadOnly(true)
+                    .getResultList();
+            List<TipoHabitacion> tipos = session.createQuery(
+                            "FROM TipoHabitacion t ORDER BY t.nombre", TipoHabitacion.class)
+                    .setReadOnly(true)
+                    .getResultList();
+            cargas.increment();
+            return new Foto(estados, tipos);
+        } catch (Exception e) {
+            throw new RuntimeException("Error al cargar los catálogos: " + e.getMessage(), e);
+        }
+    }
+
+    // Valores de una fila de catálogo: la foto no guarda entidades, que son mutables
+    private record FilaTipoEstado(Integer id, EstadoHab estado) {
+    }
+
+    private record FilaTipoHabitacion(Integer id, String nombre, String descripcion,
+                                      Integer capacidad, Double costoNoche) {
+    }
+
+    private static class Foto {
+        private final Map<EstadoHab, FilaTipoEstado> tiposEstado = new EnumMap<>(EstadoHab.class);
+        private final Map<Integer, FilaTipoEstado> tiposEstadoPorId = new HashMap<>();
+        private final List<FilaTipoEstado> listaTiposEstado;
+
+        private final Map<String, FilaTipoHabitacion> tiposHabitacion = new HashMap<>();
+        private final Map<Integer, FilaTipoHabitacion> tiposHabitacionPorId = new HashMap<>();
+        private final List<FilaTipoHabitacion> listaTiposHabitacion;
+
+        private Foto(List<TipoEstado> estados, List<TipoHabitacion> tipos) {
+            listaTiposEstado = estados.stream()
+                    .map(te -> new FilaTipoEstado(te.getId(), te.getEstado()))
+                    .toList();
+            for (FilaTipoEstado fila : listaTiposEstado) {
+                tiposEstado.put(fila.estado(), fila);
+                tiposEstadoPorId.put(fila.id(), fila);
+            }
+
+            listaTiposHabitacion = tipos.stream()
+                    .map(t -> new FilaTipoHabitacion(t.getIdTipoHabitacion(), t.getNombre(),
+                            t.getDescripcion(), t.getCapacidad(), t.getCostoNoche()))
+                    .sorted(Comparator.comparing(FilaTipoHabitacion::nombre))
+                    .toList();
+            for (FilaTipoHabitacion fila : listaTiposHabitacion) {
+                tiposHabitacion.put(fila.nombre(), fila);
+                tiposHabitacionPorId.put(fila.id(), fila);
+            }
+        }
+    }
+}
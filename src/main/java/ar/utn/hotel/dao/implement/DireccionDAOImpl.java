@@ -11,7 +11,7 @@ public class DireccionDAOImpl implements DireccionDAO {
     @Override
     public Direccion guardar(Direccion direccion) {
         Transaction tx = null;
-        try (Session s = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session s = HibernateUtil.abrirSesion()) {
             tx = s.beginTransaction();
             s.persist(direccion);
             tx.commit();
@@ -27,7 +27,7 @@ public class DireccionDAOImpl implements DireccionDAO {
             String calle, String numero, String depto, String piso,
             String codPostal, String localidad, String provincia, String pais
     ) {
-        try (Session s = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session s = HibernateUtil.abrirSesion()) {
             return s.createQuery("""
                     SELECT d FROM Direccion d
                     WHERE d.calle = :calle
@@ -1,21 +1,32 @@
 package ar.utn.hotel.dao.implement;
 
 import ar.utn.hotel.dao.interfaces.EstadiaDAO;
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.EstadiaDTO;
+import ar.utn.hotel.dto.Pagina;
 import ar.utn.hotel.model.Estadia;
 import ar.utn.hotel.model.Reserva;
 import utils.HibernateUtil;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.query.Query;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class EstadiaDAOImpl implements EstadiaDAO {
 
+    // Exactamente las columnas de EstadiaDTO; el resultado son escalares, sin entidades administradas
+    private static final String PROYECCION_DTO =
+            "SELECT e.idEstadia, r.id, hab.numero, h.nombre, h.apellido, " +
+                    "e.fechaInicio, e.fechaFin, e.horaCheckIn, e.horaCheckOut " +
+                    "FROM Estadia e JOIN e.reserva r JOIN r.huesped h JOIN e.habitacion hab ";
+
     @Override
     public Estadia guardar(Estadia estadia) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.persist(estadia);
             transaction.commit();
@@ -30,7 +41,7 @@ public class EstadiaDAOImpl implements EstadiaDAO {
 
     @Override
     public Estadia buscarPorId(Integer id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT e FROM Estadia e " +
                                     "LEFT JOIN FETCH e.reserva r " +
@@ -45,7 +56,7 @@ public class EstadiaDAOImpl implements EstadiaDAO {
 
     @Override
     public Estadia buscarPorReserva(Long idReserva) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT e FROM Estadia e " +
                                     "LEFT JOIN FETCH e.habitacion " +
@@ -58,7 +69,7 @@ public class EstadiaDAOImpl implements EstadiaDAO {
 
     @Override
     public List<Estadia> listarTodas() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT e FROM Estadia e " +
                                     "LEFT JOIN FETCH e.reserva r " +
@@ -70,9 +81,105 @@ public class EstadiaDAOImpl implements EstadiaDAO {
         }
     }
 
+    /**
+     * Página de estadías de la más reciente a la más antigua (fecha de inicio e id
+     * descendentes), a partir del cursor. Filtra con la misma comparación por fila que
+     * las reservas, sobre el índice idx_estadia_fecha_inicio.
+     */
+    @Override
+    public Pagina<Estadia> obtenerPagina(CursorPagina desde, int tamanio) {
+        int filas = Paginacion.filasAPedir(tamanio);
+        String select = "SELECT e FROM Estadia e " +
+                "JOIN FETCH e.reserva r " +
+                "JOIN FETCH r.huesped " +
+                "JOIN FETCH e.habitacion ";
+        String orden = "ORDER BY e.fechaInicio DESC, e.idEstadia DESC";
+
+        try (Session session = HibernateUtil.abrirSesion()) {
+            List<Estadia> estadias;
+            if (desde == null) {
+                estadias = session.createQuery(select + orden, Estadia.class)
+                        .setMaxResults(filas)
+                        .getResultList();
+            } else {
+                estadias = session.createQuery(select +
+                                        "WHERE (e.fechaInicio, e.idEstadia) < (:fecha, :id) " + orden,
+                                Estadia.class)
+                        .setParameter("fecha", desde.<LocalDate>clave(0))
+                        .setParameter("id", desde.<Integer>clave(1))
+                        .setMaxResults(filas)
+                        .getResultList();
+            }
+            return Paginacion.armar(estadias, tamanio,
+                    e -> CursorPagina.de(e.getFechaInicio(), e.getIdEstadia()));
+        }
+    }
+
+    /**
+     * Recorre todas las estadías en orden de id sin cargarlas en memoria
+     */
+    @Override
+    public long recorrerTodas(Consumer<EstadiaDTO> consumidor) {
+        return LecturaEnStreaming.recorrer(PROYECCION_DTO + "ORDER BY e.idEstadia",
+                fila -> consumidor.accept(aDTO(fila)));
+    }
+
+    // ========== PROYECCIONES A DTO ==========
+
+    @Override
+    public EstadiaDTO buscarDTOPorReserva(Long idReserva) {
+        List<EstadiaDTO> estadias = listarDTOs("WHERE r.id = :idReserva", "idReserva", idReserva);
+        return estadias.isEmpty() ? null : estadias.get(0);
+    }
+
+    @Override
+    public List<EstadiaDTO> listarDTOsActivas() {
+        return listarDTOs("WHERE e.horaCheckOut IS NULL ORDER BY e.fechaInicio DESC");
+    }
+
+    @Override
+    public List<EstadiaDTO> listarDTOsPorHabitacion(Integer numeroHabitacion) {
+        return listarDTOs("WHERE hab.numero = :numero ORDER BY e.fechaInicio DESC", "numero", numeroHabitacion);
+    }
+
+    @Override
+    public List<EstadiaDTO> listarDTOsPorFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        return listarDTOs("WHERE e.fechaInicio <= :fechaFin AND e.fechaFin >= :fechaInicio ORDER BY e.fechaInicio",
+                "fechaInicio", fechaInicio, "fechaFin", fechaFin);
+    }
+
+    /**
+     * Ejecuta la proyección con el filtro y orden dados; los parámetros van como pares nombre, valor
+     */
+    private List<EstadiaDTO> listarDTOs(String filtro, Object... parametros) {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            Query<Object[]> query = session.createQuery(PROYECCION_DTO + filtro, Object[].class);
+            for (int i = 0; i < parametros.length; i += 2) {
+                query.setParameter((String) parametros[i], parametros[i + 1]);
+            }
+            return query.getResultList().stream()
+                    .map(EstadiaDAOImpl::aDTO)
+                    .toList();
+        }
+    }
+
+    private static EstadiaDTO aDTO(Object[] fila) {
+        return EstadiaDTO.builder()
+                .idEstadia((Integer) fila[0])
+                .idReserva((Long) fila[1])
+                .numeroHabitacion((Integer) fila[2])
+                .nombreHuesped((String) fila[3])
+                .apellidoHuesped((String) fila[4])
+                .fechaInicio((LocalDate) fila[5])
+                .fechaFin((LocalDate) fila[6])
+                .horaCheckIn((LocalDateTime) fila[7])
+                .horaCheckOut((LocalDateTime) fila[8])
+                .build();
+    }
+
     @Override
     public List<Estadia> listarActivas() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT e FROM Estadia e " +
                                     "LEFT JOIN FETCH e.reserva r " +
@@ -87,7 +194,7 @@ public class EstadiaDAOImpl implements EstadiaDAO {
 
     @Override
     public List<Estadia> listarPorHabitacion(Integer numeroHabitacion) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT e FROM Estadia e " +
                                     "LEFT JOIN FETCH e.reserva r " +
@@ -102,7 +209,7 @@ public class EstadiaDAOImpl implements EstadiaDAO {
 
     @Override
     public List<Estadia> listarPorFechas(LocalDate fechaInicio, LocalDate fechaFin) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT e FROM Estadia e " +
                                     "LEFT JOIN FETCH e.reserva r " +
@@ -121,7 +228,7 @@ public class EstadiaDAOImpl implements EstadiaDAO {
     @Override
     public void actualizar(Estadia estadia) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.merge(estadia);
             transaction.commit();
@@ -136,7 +243,7 @@ public class EstadiaDAOImpl implements EstadiaDAO {
     @Override
     public void eliminar(Integer id) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             Estadia estadia = session.get(Estadia.class, id);
             if (estadia != null) {
@@ -154,7 +261,7 @@ public class EstadiaDAOImpl implements EstadiaDAO {
     @Override
     public Estadia crearDesdeReserva(Reserva reserva) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
 
             // Verificar si ya existe una estadía para esta reserva
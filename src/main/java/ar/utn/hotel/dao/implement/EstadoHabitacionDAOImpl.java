@@ -1,23 +1,65 @@
 package ar.utn.hotel.dao.implement;
 
 import ar.utn.hotel.dao.interfaces.EstadoHabitacionDAO;
+import ar.utn.hotel.disponibilidad.IndiceEstadosHabitacion;
+import ar.utn.hotel.disponibilidad.MatrizOcupacion;
 import ar.utn.hotel.model.EstadoHabitacion;
 import utils.HibernateUtil;
 import enums.EstadoHab;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.query.Query;
 
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.stream.Stream;
 
 public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
 
+    /**
+     * Propiedad de sistema que elige dónde se expanden los intervalos de estado a días
+     * en obtenerEstadosEnRango: "cliente" (por defecto) o "servidor"
+     */
+    public static final String PROPIEDAD_EXPANSION = "hotel.estados.expansion";
+
+    private static final int TAMANIO_FETCH = 1000;
+
+    // Expande cada (habitación, día) en PostgreSQL y devuelve solo los días no disponibles
+    // como tuplas (numero, desplazamiento desde el inicio, ordinal del estado), ya ordenadas.
+    // Para cada día gana el intervalo según EstadoHabitacion.PRECEDENCIA, igual que el índice en memoria.
+    private static final String SQL_ESTADOS_POR_DIA =
+            "SELECT h.numero, CAST(d.dia AS date) - CAST(:inicio AS date) AS desplazamiento, " +
+                    ordinalEstadoSql("e.estado") + " AS estado " +
+            "FROM habitacion h " +
+            "CROSS JOIN generate_series(CAST(:inicio AS date), CAST(:fin AS date), interval '1 day') AS d(dia) " +
+            "JOIN LATERAL (" +
+            "    SELECT te.estado FROM estado_habitacion eh " +
+            "    JOIN tipo_estado te ON te.id = eh.id_tipo_estado " +
+            "    WHERE eh.numero_habitacion = h.numero " +
+            "    AND eh.fecha_desde <= d.dia " +
+            "    AND (eh.fecha_hasta IS NULL OR eh.fecha_hasta >= d.dia) " +
+            "    ORDER BY " + EstadoHabitacion.ORDEN_PRECEDENCIA_SQL + " " +
+            "    LIMIT 1" +
+            ") e ON true " +
+            "WHERE h.numero IN (:numeros) " +
+            "AND e.estado <> '" + EstadoHab.DISPONIBLE.name() + "' " +
+            "ORDER BY h.numero, d.dia";
+
+    private final boolean expansionEnServidor;
+
+    public EstadoHabitacionDAOImpl() {
+        this("servidor".equalsIgnoreCase(System.getProperty(PROPIEDAD_EXPANSION, "cliente")));
+    }
+
+    public EstadoHabitacionDAOImpl(boolean expansionEnServidor) {
+        this.expansionEnServidor = expansionEnServidor;
+    }
+
     @Override
     public EstadoHabitacion guardar(EstadoHabitacion estadoHabitacion) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.persist(estadoHabitacion);
             transaction.commit();
@@ -32,7 +74,7 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
 
     @Override
     public EstadoHabitacion buscarPorId(Integer id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT eh FROM EstadoHabitacion eh " +
                                     "LEFT JOIN FETCH eh.tipoEstado " +
@@ -46,7 +88,7 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
 
     @Override
     public List<EstadoHabitacion> listarTodos() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT eh FROM EstadoHabitacion eh " +
                                     "LEFT JOIN FETCH eh.tipoEstado " +
@@ -59,7 +101,7 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
 
     @Override
     public List<EstadoHabitacion> listarPorHabitacion(Integer numeroHabitacion) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT eh FROM EstadoHabitacion eh " +
                                     "LEFT JOIN FETCH eh.tipoEstado " +
@@ -71,9 +113,35 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
         }
     }
 
+    /**
+     * Intervalos de la habitación que se superponen con [desde, hasta]; un hasta nulo
+     * no pone límite superior. Usa idx_estado_habitacion_habitacion_fechas.
+     */
+    @Override
+    public List<EstadoHabitacion> listarPorHabitacionEnRango(Integer numeroHabitacion,
+                                                             LocalDate desde,
+                                                             LocalDate hasta) {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            String hql = "SELECT eh FROM EstadoHabitacion eh " +
+                    "LEFT JOIN FETCH eh.tipoEstado " +
+                    "WHERE eh.habitacion.numero = :numero " +
+                    "AND (eh.fechaHasta IS NULL OR eh.fechaHasta >= :desde) " +
+                    (hasta != null ? "AND eh.fechaDesde <= :hasta " : "") +
+                    "ORDER BY eh.fechaDesde DESC";
+
+            Query<EstadoHabitacion> query = session.createQuery(hql, EstadoHabitacion.class)
+                    .setParameter("numero", numeroHabitacion)
+                    .setParameter("desde", desde);
+            if (hasta != null) {
+                query.setParameter("hasta", hasta);
+            }
+            return query.getResultList();
+        }
+    }
+
     @Override
     public List<EstadoHabitacion> listarActivos() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT eh FROM EstadoHabitacion eh " +
                                     "LEFT JOIN FETCH eh.tipoEstado " +
@@ -88,7 +156,7 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
 
     @Override
     public List<EstadoHabitacion> listarPorTipoEstado(EstadoHab estado) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT eh FROM EstadoHabitacion eh " +
                                     "LEFT JOIN FETCH eh.tipoEstado te " +
@@ -105,7 +173,7 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
 
     @Override
     public EstadoHabitacion obtenerEstadoActual(Integer numeroHabitacion) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT eh FROM EstadoHabitacion eh " +
                                     "LEFT JOIN FETCH eh.tipoEstado " +
@@ -123,14 +191,14 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
 
     @Override
     public EstadoHabitacion obtenerEstadoEn(Integer numeroHabitacion, LocalDate fecha) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT eh FROM EstadoHabitacion eh " +
                                     "LEFT JOIN FETCH eh.tipoEstado " +
                                     "WHERE eh.habitacion.numero = :numero " +
                                     "AND eh.fechaDesde <= :fecha " +
                                     "AND (eh.fechaHasta IS NULL OR eh.fechaHasta >= :fecha) " +
-                                    "ORDER BY eh.fechaDesde DESC",
+                                    "ORDER BY " + EstadoHabitacion.ORDEN_PRECEDENCIA_HQL,
                             EstadoHabitacion.class)
                     .setParameter("numero", numeroHabitacion)
                     .setParameter("fecha", fecha)
@@ -139,10 +207,27 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
         }
     }
 
+    @Override
+    public List<EstadoHabitacion> listarEnRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            return session.createQuery(
+                            "SELECT eh FROM EstadoHabitacion eh " +
+                                    "JOIN FETCH eh.habitacion h " +
+                                    "JOIN FETCH eh.tipoEstado " +
+                                    "WHERE (eh.fechaHasta IS NULL OR eh.fechaHasta >= :inicio) " +
+                                    "AND eh.fechaDesde <= :fin " +
+                                    "ORDER BY h.numero, eh.fechaDesde",
+                            EstadoHabitacion.class)
+                    .setParameter("inicio", fechaInicio)
+                    .setParameter("fin", fechaFin)
+                    .getResultList();
+        }
+    }
+
     @Override
     public void actualizar(EstadoHabitacion estadoHabitacion) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.merge(estadoHabitacion);
             transaction.commit();
@@ -157,10 +242,11 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
     @Override
     public void eliminar(Integer id) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             EstadoHabitacion estadoHabitacion = session.get(EstadoHabitacion.class, id);
             if (estadoHabitacion != null) {
+                soltarEstadoActual(session, id);
                 session.remove(estadoHabitacion);
             }
             transaction.commit();
@@ -173,16 +259,20 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
     }
 
     @Override
-    public Map<String, EstadoHab> obtenerEstadosEnRango(List<Integer> numerosHabitaciones,
-                                                        LocalDate fechaInicio,
-                                                        LocalDate fechaFin) {
-        Map<String, EstadoHab> resultado = new HashMap<>();
-
+    public MatrizOcupacion obtenerEstadosEnRango(List<Integer> numerosHabitaciones,
+                                                 LocalDate fechaInicio,
+                                                 LocalDate fechaFin) {
         if (numerosHabitaciones == null || numerosHabitaciones.isEmpty()) {
-            return resultado;
+            return new MatrizOcupacion(List.of(), fechaInicio, fechaFin);
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        MatrizOcupacion resultado = new MatrizOcupacion(numerosHabitaciones, fechaInicio, fechaFin);
+
+        if (expansionEnServidor) {
+            return obtenerEstadosEnRangoServidor(numerosHabitaciones, fechaInicio, fechaFin, resultado);
+        }
+
+        try (Session session = HibernateUtil.abrirSesion()) {
             // Una sola query que trae TODOS los estados necesarios
             List<EstadoHabitacion> estados = session.createQuery(
                             "SELECT eh FROM EstadoHabitacion eh " +
@@ -198,34 +288,225 @@ public class EstadoHabitacionDAOImpl implements EstadoHabitacionDAO {
                     .setParameter("fin", fechaFin)
                     .getResultList();
 
-            // Mapear cada combinación habitación-fecha al estado correspondiente
-            for (Integer numHab : numerosHabitaciones) {
-                LocalDate fechaActual = fechaInicio;
-                while (!fechaActual.isAfter(fechaFin)) {
-                    // Buscar el estado correspondiente a esta fecha
-                    LocalDate finalFechaActual = fechaActual;
-                    LocalDate finalFechaActual1 = fechaActual;
-                    EstadoHab estadoEnFecha = estados.stream()
-                            .filter(eh -> eh.getHabitacion().getNumero().equals(numHab))
-                            .filter(eh -> !finalFechaActual.isBefore(eh.getFechaDesde()))
-                            .filter(eh -> eh.getFechaHasta() == null || !finalFechaActual1.isAfter(eh.getFechaHasta()))
-                            .map(eh -> eh.getTipoEstado().getEstado())
-                            .findFirst()
-                            .orElse(EstadoHab.DISPONIBLE);
-
-                    String clave = numHab + "_" + fechaActual;
-                    resultado.put(clave, estadoEnFecha);
-
-                    fechaActual = fechaActual.plusDays(1);
+            // Indexar los intervalos una sola vez y volcar cada (habitación, día) en la matriz
+            IndiceEstadosHabitacion.construir(estados).volcarEn(resultado);
+
+            return resultado;
+
+        } catch (Exception e) {
+            // Una matriz vacía se vería como "todo disponible": el error tiene que llegar a la pantalla
+            throw new RuntimeException("Error al obtener estados en rango: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fusiona los intervalos contiguos de una sola habitación, en su propia transacción:
+     * solo se cargan y se bloquean las filas de esa habitación
+     */
+    @Override
+    public int fusionarIntervalosContiguos(Integer numeroHabitacion) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.abrirSesion()) {
+            transaction = session.beginTransaction();
+
+            List<EstadoHabitacion> intervalos = session.createQuery(
+                            "SELECT eh FROM EstadoHabitacion eh " +
+                                    "JOIN FETCH eh.tipoEstado " +
+                                    "WHERE eh.habitacion.numero = :numero " +
+                                    "ORDER BY eh.fechaDesde",
+                            EstadoHabitacion.class)
+                    .setParameter("numero", numeroHabitacion)
+                    .getResultList();
+
+            int fusionados = fusionarIntervalos(session, intervalos);
+
+            transaction.commit();
+            return fusionados;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error al fusionar estados de habitación: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public LocalDate obtenerPrimerFechaAnteriorA(LocalDate corte) {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            return session.createQuery(
+                            "SELECT MIN(eh.fechaDesde) FROM EstadoHabitacion eh " +
+                                    "WHERE eh.fechaHasta < :corte",
+                            LocalDate.class)
+                    .setParameter("corte", corte)
+                    .uniqueResult();
+        }
+    }
+
+    @Override
+    public int archivarCerradosAntesDe(LocalDate corte) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.abrirSesion()) {
+            transaction = session.beginTransaction();
+
+            int archivados = session.createNativeMutationQuery(
+                            "INSERT INTO estado_habitacion_historico " +
+                                    "(id, numero_habitacion, id_tipo_estado, fecha_desde, fecha_hasta, fecha_archivado) " +
+                                    "SELECT id, numero_habitacion, id_tipo_estado, fecha_desde, fecha_hasta, CURRENT_DATE " +
+                                    "FROM estado_habitacion " +
+                                    "WHERE fecha_hasta < :corte")
+                    .setParameter("corte", corte)
+                    .executeUpdate();
+
+            // Un puntero a un intervalo tan viejo solo puede estar desactualizado: se recalcula al sincronizar
+            session.createNativeMutationQuery(
+                            "UPDATE habitacion SET id_estado_actual = NULL, estado_actual_al = NULL " +
+                                    "WHERE id_estado_actual IN " +
+                                    "(SELECT id FROM estado_habitacion WHERE fecha_hasta < :corte)")
+                    .setParameter("corte", corte)
+                    .executeUpdate();
+
+            session.createNativeMutationQuery(
+                            "DELETE FROM estado_habitacion WHERE fecha_hasta < :corte")
+                    .setParameter("corte", corte)
+                    .executeUpdate();
+
+            transaction.commit();
+            return archivados;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error al archivar estados de habitación: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Quita el estado de las habitaciones que lo tienen como estado actual, para poder borrarlo
+     */
+    private void soltarEstadoActual(Session session, Integer idEstado) {
+        session.createNativeMutationQuery(
+                        "UPDATE habitacion SET id_estado_actual = NULL, estado_actual_al = NULL " +
+                                "WHERE id_estado_actual = :id")
+                .setParameter("id", idEstado)
+                .executeUpdate();
+    }
+
+    /**
+     * Fusiona los intervalos de una habitación (ordenados por fechaDesde) que son contiguos
+     * y del mismo tipo de estado. Solo fusiona si el resultado deja igual el estado de cada
+     * día: ningún otro intervalo que empiece entre ambos puede cubrir días del segundo,
+     * porque tras la fusión perdería la prioridad que le da su fecha de inicio.
+     */
+    private int fusionarIntervalos(Session session, List<EstadoHabitacion> intervalos) {
+        int fusionados = 0;
+        for (int i = 0; i < intervalos.size(); i++) {
+            EstadoHabitacion actual = intervalos.get(i);
+
+            boolean huboFusion = true;
+            while (huboFusion && actual.getFechaHasta() != null) {
+                huboFusion = false;
+                LocalDate siguienteDia = actual.getFechaHasta().plusDays(1);
+
+                for (int j = i + 1; j < intervalos.size(); j++) {
+                    EstadoHabitacion candidato = intervalos.get(j);
+                    if (!candidato.getFechaDesde().equals(siguienteDia)
+                            || !candidato.getTipoEstado().getId().equals(actual.getTipoEstado().getId())
+                            || hayIntervaloIntermedio(intervalos, actual, candidato)) {
+                        continue;
+                    }
+
+                    actual.setFechaHasta(candidato.getFechaHasta());
+                    intervalos.remove(j);
+                    // El intervalo fusionado cubre los mismos días, así que hereda el puntero
+                    session.createNativeMutationQuery(
+                                    "UPDATE habitacion SET id_estado_actual = :nuevo WHERE id_estado_actual = :viejo")
+                            .setParameter("nuevo", actual.getId())
+                            .setParameter("viejo", candidato.getId())
+                            .executeUpdate();
+                    session.remove(candidato);
+                    fusionados++;
+                    huboFusion = true;
+                    break;
                 }
             }
+        }
+        return fusionados;
+    }
+
+    private boolean hayIntervaloIntermedio(List<EstadoHabitacion> intervalos,
+                                           EstadoHabitacion primero, EstadoHabitacion segundo) {
+        for (EstadoHabitacion otro : intervalos) {
+            if (otro == primero || otro == segundo) {
+                continue;
+            }
+            boolean empiezaEntreAmbos = !otro.getFechaDesde().isBefore(primero.getFechaDesde())
+                    && otro.getFechaDesde().isBefore(segundo.getFechaDesde());
+            boolean cubreAlSegundo = otro.getFechaHasta() == null
+                    || !otro.getFechaHasta().isBefore(segundo.getFechaDesde());
+            if (empiezaEntreAmbos && cubreAlSegundo) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    /**
+     * Variante de obtenerEstadosEnRango que delega la expansión por día en la base.
+     * Las tuplas se leen de a bloques y se vuelcan directo en la matriz, sin
+     * materializar entidades ni listas intermedias. La lectura va dentro de una transacción,
+     * como en LecturaEnStreaming: sin ella el driver ignora el fetch size y trae todo de una vez.
+     */
+    private MatrizOcupacion obtenerEstadosEnRangoServidor(List<Integer> numerosHabitaciones,
+                                                          LocalDate fechaInicio,
+                                                          LocalDate fechaFin,
+                                                          MatrizOcupacion resultado) {
+        EstadoHab[] estados = EstadoHab.values();
+
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.abrirSesion()) {
+            transaction = session.beginTransaction();
+
+            try (Stream<Object[]> filas = session.createNativeQuery(SQL_ESTADOS_POR_DIA, Object[].class)
+                    .setParameterList("numeros", numerosHabitaciones)
+                    .setParameter("inicio", fechaInicio)
+                    .setParameter("fin", fechaFin)
+                    .setFetchSize(TAMANIO_FETCH)
+                    .getResultStream()) {
+
+                int numeroActual = Integer.MIN_VALUE;
+                int fila = -1;
+                Iterator<Object[]> it = filas.iterator();
+                while (it.hasNext()) {
+                    Object[] tupla = it.next();
+                    int numero = ((Number) tupla[0]).intValue();
+                    if (numero != numeroActual) {
+                        // Las tuplas llegan ordenadas por habitación: se busca la fila una vez por habitación
+                        numeroActual = numero;
+                        fila = resultado.indiceHabitacion(numero);
+                    }
+                    resultado.setEstado(fila, ((Number) tupla[1]).intValue(), estados[((Number) tupla[2]).intValue()]);
+                }
+            }
+
+            transaction.commit();
             return resultado;
 
         } catch (Exception e) {
-            System.err.println("Error al obtener estados en rango: " + e.getMessage());
-            e.printStackTrace();
-            return resultado;
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error al obtener estados en rango (expansión en servidor): " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Expresión SQL que traduce el nombre del estado guardado en tipo_estado a su ordinal en EstadoHab
+     */
+    private static String ordinalEstadoSql(String columna) {
+        StringBuilder sql = new StringBuilder("CASE ").append(columna);
+        for (EstadoHab estado : EstadoHab.values()) {
+            sql.append(" WHEN '").append(estado.name()).append("' THEN ").append(estado.ordinal());
         }
+        return sql.append(" END").toString();
     }
-}
\ No newline at end of file
+}
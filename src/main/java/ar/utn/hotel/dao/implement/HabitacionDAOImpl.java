@@ -2,17 +2,38 @@ package ar.utn.hotel.dao.implement;
 
 import ar.utn.hotel.dao.interfaces.HabitacionDAO;
 import ar.utn.hotel.dao.interfaces.TipoEstadoDAO;
+import ar.utn.hotel.dto.HabitacionDTO;
+import ar.utn.hotel.eventos.CambioEstadoHabitacion;
+import ar.utn.hotel.eventos.NotificadorEstadosHabitacion;
 import ar.utn.hotel.model.*;
 import utils.HibernateUtil;
 import enums.EstadoHab;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.query.Query;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class HabitacionDAOImpl implements HabitacionDAO {
 
+    // Exactamente las columnas de HabitacionDTO, con el estado apuntado por estadoActual y la fecha en que se calculó
+    private static final String PROYECCION_DTO =
+            "SELECT h.numero, t.nombre, t.idTipoHabitacion, t.costoNoche, h.piso, t.capacidad, t.descripcion, " +
+                    "te.estado, h.estadoActualAl " +
+                    "FROM Habitacion h LEFT JOIN h.tipo t LEFT JOIN h.estadoActual ea LEFT JOIN ea.tipoEstado te ";
+
+    // Descarta el intervalo eh si otro vigente hoy le gana (EstadoHabitacion.PRECEDENCIA):
+    // una reserva sobre el DISPONIBLE abierto cuenta sólo como RESERVADA
+    private static final String SIN_INTERVALO_QUE_GANE =
+            "AND NOT EXISTS (SELECT 1 FROM EstadoHabitacion otro " +
+                    "WHERE otro.habitacion = eh.habitacion " +
+                    "AND otro.fechaDesde <= :hoy AND (otro.fechaHasta IS NULL OR otro.fechaHasta >= :hoy) " +
+                    "AND (otro.fechaDesde, otro.id) > (eh.fechaDesde, eh.id)) ";
+
     private final TipoEstadoDAO tipoEstadoDAO;
 
     public HabitacionDAOImpl(TipoEstadoDAO tipoEstadoDAO) {
@@ -22,7 +43,7 @@ public class HabitacionDAOImpl implements HabitacionDAO {
     @Override
     public Habitacion guardar(Habitacion habitacion) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.persist(habitacion);
             transaction.commit();
@@ -37,10 +58,12 @@ public class HabitacionDAOImpl implements HabitacionDAO {
 
     @Override
     public Habitacion buscarPorNumero(Integer numero) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT h FROM Habitacion h " +
                                     "LEFT JOIN FETCH h.estados " +
+                                    "LEFT JOIN FETCH h.estadoActual ea " +
+                                    "LEFT JOIN FETCH ea.tipoEstado " +
                                     "WHERE h.numero = :numero",
                             Habitacion.class)
                     .setParameter("numero", numero)
@@ -50,10 +73,33 @@ public class HabitacionDAOImpl implements HabitacionDAO {
 
     @Override
     public List<Habitacion> listarTodas() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
-                            "SELECT DISTINCT h FROM Habitacion h " +
-                                    "LEFT JOIN FETCH h.estados " +
+                            "SELECT h FROM Habitacion h " +
+                                    "LEFT JOIN FETCH h.estadoActual ea " +
+                                    "LEFT JOIN FETCH ea.tipoEstado " +
+                                    "ORDER BY h.numero",
+                            Habitacion.class)
+                    .getResultList();
+        }
+    }
+
+    @Override
+    public List<Integer> listarNumeros() {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            return session.createQuery(
+                            "SELECT h.numero FROM Habitacion h ORDER BY h.numero",
+                            Integer.class)
+                    .getResultList();
+        }
+    }
+
+    @Override
+    public List<Habitacion> listarConTipo() {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            return session.createQuery(
+                            "SELECT h FROM Habitacion h " +
+                                    "JOIN FETCH h.tipo " +
                                     "ORDER BY h.numero",
                             Habitacion.class)
                     .getResultList();
@@ -62,10 +108,12 @@ public class HabitacionDAOImpl implements HabitacionDAO {
 
     @Override
     public List<Habitacion> listarPorRangoDeFechas(LocalDate fechaInicio, LocalDate fechaFin) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             String hql = "SELECT DISTINCT h FROM Habitacion h " +
                     "LEFT JOIN FETCH h.estados eh " +
                     "LEFT JOIN FETCH eh.tipoEstado " +
+                    "LEFT JOIN FETCH h.estadoActual ea " +
+                    "LEFT JOIN FETCH ea.tipoEstado " +
                     "WHERE h.numero NOT IN " +
                     "(SELECT DISTINCT r.habitacion.numero FROM Reserva r " +
                     "WHERE r.fechaInicio <= :fechaFin " +
@@ -82,8 +130,9 @@ public class HabitacionDAOImpl implements HabitacionDAO {
     @Override
     public void reservarHabitaciones(Set<Integer> numerosHabitaciones, LocalDate fechaDesde, LocalDate fechaHasta) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
+            List<CambioEstadoHabitacion> cambios = new ArrayList<>();
 
             // Obtener el tipo estado RESERVADA del catálogo
             TipoEstado tipoReservada = tipoEstadoDAO.buscarPorEstado(EstadoHab.RESERVADA);
@@ -102,7 +151,7 @@ public class HabitacionDAOImpl implements HabitacionDAO {
                 }
 
                 // Obtener el estado actual
-                EstadoHabitacion estadoActual = habitacion.getEstadoActual();
+                EstadoHabitacion estadoActual = estadoVigente(session, habitacion);
 
                 // Verificar si el estado actual es DISPONIBLE
                 if (estadoActual != null &&
@@ -129,10 +178,13 @@ public class HabitacionDAOImpl implements HabitacionDAO {
 
                 habitacion.getEstados().add(nuevoEstado);
                 session.persist(nuevoEstado);
-                session.merge(habitacion);
+                actualizarEstadoActual(session, habitacion);
+
+                cambios.add(cambioDesdeCierre(numero, nuevoEstado, estadoActual != null, EstadoHab.RESERVADA));
             }
 
             transaction.commit();
+            NotificadorEstadosHabitacion.publicar(cambios);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -144,8 +196,9 @@ public class HabitacionDAOImpl implements HabitacionDAO {
     @Override
     public void ocuparHabitaciones(Set<Integer> numerosHabitaciones, LocalDate fechaDesde, LocalDate fechaHasta) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
+            List<CambioEstadoHabitacion> cambios = new ArrayList<>();
 
             // Obtener el tipo estado OCUPADA del catálogo
             TipoEstado tipoOcupada = tipoEstadoDAO.buscarPorEstado(EstadoHab.OCUPADA);
@@ -164,7 +217,7 @@ public class HabitacionDAOImpl implements HabitacionDAO {
                 }
 
                 // Obtener el estado actual
-                EstadoHabitacion estadoActual = habitacion.getEstadoActual();
+                EstadoHabitacion estadoActual = estadoVigente(session, habitacion);
 
                 // Verificar si el estado actual es RESERVADA
                 if (estadoActual == null ||
@@ -190,10 +243,13 @@ public class HabitacionDAOImpl implements HabitacionDAO {
 
                 habitacion.getEstados().add(nuevoEstado);
                 session.persist(nuevoEstado);
-                session.merge(habitacion);
+                actualizarEstadoActual(session, habitacion);
+
+                cambios.add(cambioDesdeCierre(numero, nuevoEstado, true, EstadoHab.OCUPADA));
             }
 
             transaction.commit();
+            NotificadorEstadosHabitacion.publicar(cambios);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -202,12 +258,107 @@ public class HabitacionDAOImpl implements HabitacionDAO {
         }
     }
 
+    /**
+     * Arma el aviso de cambio para una transición que cerró el estado anterior en
+     * "ayer": a partir de ahí cambian todos los días, por eso el rango queda abierto
+     */
+    private CambioEstadoHabitacion cambioDesdeCierre(Integer numero, EstadoHabitacion nuevoEstado,
+                                                     boolean cerroEstadoAnterior, EstadoHab estado) {
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        if (!cerroEstadoAnterior) {
+            return new CambioEstadoHabitacion(numero, nuevoEstado.getFechaDesde(), nuevoEstado.getFechaHasta(), estado);
+        }
+        LocalDate desde = nuevoEstado.getFechaDesde().isBefore(ayer) ? nuevoEstado.getFechaDesde() : ayer;
+        return new CambioEstadoHabitacion(numero, desde, null, estado);
+    }
+
+    @Override
+    public void sincronizarEstadoActual(Integer numero) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.abrirSesion()) {
+            transaction = session.beginTransaction();
+            Habitacion habitacion = session.get(Habitacion.class, numero);
+            if (habitacion != null) {
+                actualizarEstadoActual(session, habitacion);
+            }
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error al sincronizar estado actual: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int sincronizarEstadosActuales() {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.abrirSesion()) {
+            transaction = session.beginTransaction();
+            // Un solo UPDATE para todas las habitaciones que no fueron sincronizadas hoy
+            int actualizadas = session.createNativeMutationQuery(
+                            "UPDATE habitacion h SET estado_actual_al = :hoy, id_estado_actual = (" +
+                                    "    SELECT eh.id FROM estado_habitacion eh " +
+                                    "    WHERE eh.numero_habitacion = h.numero " +
+                                    "    AND eh.fecha_desde <= :hoy " +
+                                    "    AND (eh.fecha_hasta IS NULL OR eh.fecha_hasta >= :hoy) " +
+                                    "    ORDER BY " + EstadoHabitacion.ORDEN_PRECEDENCIA_SQL + " " +
+                                    "    LIMIT 1" +
+                                    ") " +
+                                    "WHERE h.estado_actual_al IS NULL OR h.estado_actual_al <> :hoy")
+                    .setParameter("hoy", LocalDate.now())
+                    .executeUpdate();
+            transaction.commit();
+            return actualizadas;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error al sincronizar estados actuales: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recalcula el estado actual de una habitación dentro de la transacción en curso.
+     * Se llama después de cada transición, así el cambio y el puntero se confirman juntos.
+     */
+    static void actualizarEstadoActual(Session session, Habitacion habitacion) {
+        LocalDate hoy = LocalDate.now();
+        session.flush();
+        EstadoHabitacion vigente = session.createQuery(
+                        "SELECT eh FROM EstadoHabitacion eh " +
+                                "JOIN FETCH eh.tipoEstado " +
+                                "WHERE eh.habitacion.numero = :numero " +
+                                "AND eh.fechaDesde <= :hoy " +
+                                "AND (eh.fechaHasta IS NULL OR eh.fechaHasta >= :hoy) " +
+                                "ORDER BY " + EstadoHabitacion.ORDEN_PRECEDENCIA_HQL,
+                        EstadoHabitacion.class)
+                .setParameter("numero", habitacion.getNumero())
+                .setParameter("hoy", hoy)
+                .setMaxResults(1)
+                .uniqueResult();
+
+        habitacion.setEstadoActual(vigente);
+        habitacion.setEstadoActualAl(hoy);
+    }
+
+    /**
+     * Estado vigente hoy: el mantenido si está al día, si no se consulta en la misma sesión
+     */
+    private EstadoHabitacion estadoVigente(Session session, Habitacion habitacion) {
+        if (!habitacion.isEstadoActualVigente(LocalDate.now())) {
+            actualizarEstadoActual(session, habitacion);
+        }
+        return habitacion.getEstadoActual();
+    }
+
     @Override
     public List<Habitacion> buscarPorTipo(TipoHabitacion tipo) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
-                            "SELECT DISTINCT h FROM Habitacion h " +
-                                    "LEFT JOIN FETCH h.estados " +
+                            "SELECT h FROM Habitacion h " +
+                                    "LEFT JOIN FETCH h.estadoActual ea " +
+                                    "LEFT JOIN FETCH ea.tipoEstado " +
                                     "WHERE h.tipo = :tipo " +
                                     "ORDER BY h.numero",
                             Habitacion.class)
@@ -218,18 +369,21 @@ public class HabitacionDAOImpl implements HabitacionDAO {
 
     @Override
     public List<Habitacion> buscarPorEstado(EstadoHab estado) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             String hql = "SELECT DISTINCT h FROM Habitacion h " +
+                    "LEFT JOIN FETCH h.estadoActual ea " +
+                    "LEFT JOIN FETCH ea.tipoEstado " +
                     "JOIN h.estados eh " +
                     "JOIN eh.tipoEstado te " +
                     "WHERE te.estado = :estado " +
-                    "AND (eh.fechaHasta IS NULL OR eh.fechaHasta >= :now) " +
-                    "AND eh.fechaDesde <= :now " +
+                    "AND (eh.fechaHasta IS NULL OR eh.fechaHasta >= :hoy) " +
+                    "AND eh.fechaDesde <= :hoy " +
+                    SIN_INTERVALO_QUE_GANE +
                     "ORDER BY h.numero";
 
             return session.createQuery(hql, Habitacion.class)
                     .setParameter("estado", estado)
-                    .setParameter("now", LocalDate.now())
+                    .setParameter("hoy", LocalDate.now())
                     .getResultList();
         }
     }
@@ -239,10 +393,108 @@ public class HabitacionDAOImpl implements HabitacionDAO {
         return buscarPorEstado(EstadoHab.DISPONIBLE);
     }
 
+    // ========== PROYECCIONES A DTO ==========
+
+    @Override
+    public HabitacionDTO obtenerDTO(Integer numero) {
+        List<HabitacionDTO> habitaciones = listarDTOs("WHERE h.numero = :numero", "numero", numero);
+        return habitaciones.isEmpty() ? null : habitaciones.get(0);
+    }
+
+    @Override
+    public List<HabitacionDTO> listarDTOs() {
+        return listarDTOs("ORDER BY h.numero");
+    }
+
+    @Override
+    public List<HabitacionDTO> listarDTOsPorTipo(Integer idTipoHabitacion) {
+        return listarDTOs("WHERE t.idTipoHabitacion = :idTipo ORDER BY h.numero", "idTipo", idTipoHabitacion);
+    }
+
+    @Override
+    public List<HabitacionDTO> listarDTOsPorEstado(EstadoHab estado) {
+        return listarDTOs("WHERE EXISTS (SELECT 1 FROM EstadoHabitacion eh " +
+                        "WHERE eh.habitacion = h AND eh.tipoEstado.estado = :estado " +
+                        "AND eh.fechaDesde <= :hoy AND (eh.fechaHasta IS NULL OR eh.fechaHasta >= :hoy) " +
+                        SIN_INTERVALO_QUE_GANE + ") " +
+                        "ORDER BY h.numero",
+                "estado", estado, "hoy", LocalDate.now());
+    }
+
+    @Override
+    public List<HabitacionDTO> listarDTOsSinReservasEntre(LocalDate fechaInicio, LocalDate fechaFin) {
+        return listarDTOs("WHERE h.numero NOT IN (SELECT r.habitacion.numero FROM Reserva r " +
+                        "WHERE r.fechaInicio <= :fechaFin AND r.fechaFin >= :fechaInicio) " +
+                        "ORDER BY h.numero",
+                "fechaInicio", fechaInicio, "fechaFin", fechaFin);
+    }
+
+    /**
+     * Ejecuta la proyección con el filtro y orden dados; los parámetros van como pares nombre, valor.
+     * Las habitaciones cuyo estado actual no se calculó hoy se resuelven con una sola consulta adicional.
+     */
+    private List<HabitacionDTO> listarDTOs(String filtro, Object... parametros) {
+        LocalDate hoy = LocalDate.now();
+        try (Session session = HibernateUtil.abrirSesion()) {
+            Query<Object[]> query = session.createQuery(PROYECCION_DTO + filtro, Object[].class);
+            for (int i = 0; i < parametros.length; i += 2) {
+                query.setParameter((String) parametros[i], parametros[i + 1]);
+            }
+            List<Object[]> filas = query.getResultList();
+
+            List<Integer> desactualizadas = filas.stream()
+                    .filter(fila -> !hoy.equals(fila[8]))
+                    .map(fila -> (Integer) fila[0])
+                    .toList();
+            Map<Integer, EstadoHab> estadosHoy = desactualizadas.isEmpty()
+                    ? Map.of()
+                    : estadosVigentes(session, desactualizadas, hoy);
+
+            List<HabitacionDTO> habitaciones = new ArrayList<>(filas.size());
+            for (Object[] fila : filas) {
+                EstadoHab estado = hoy.equals(fila[8]) ? (EstadoHab) fila[7] : estadosHoy.get((Integer) fila[0]);
+                habitaciones.add(HabitacionDTO.builder()
+                        .numero((Integer) fila[0])
+                        .tipo((String) fila[1])
+                        .idTipoHabitacion((Integer) fila[2])
+                        .costoNoche(fila[3] != null ? (Double) fila[3] : 0.0)
+                        .piso((Integer) fila[4])
+                        .capacidad((Integer) fila[5])
+                        .descripcion((String) fila[6])
+                        .estadoActual(estado != null ? estado.name() : null)
+                        .build());
+            }
+            return habitaciones;
+        }
+    }
+
+    /**
+     * Estado vigente en la fecha para cada habitación, sin mover el puntero estadoActual
+     */
+    private Map<Integer, EstadoHab> estadosVigentes(Session session, List<Integer> numeros, LocalDate fecha) {
+        List<Object[]> filas = session.createQuery(
+                        "SELECT eh.habitacion.numero, te.estado FROM EstadoHabitacion eh JOIN eh.tipoEstado te " +
+                                "WHERE eh.habitacion.numero IN :numeros " +
+                                "AND eh.fechaDesde <= :fecha " +
+                                "AND (eh.fechaHasta IS NULL OR eh.fechaHasta >= :fecha) " +
+                                "ORDER BY eh.habitacion.numero, " + EstadoHabitacion.ORDEN_PRECEDENCIA_HQL,
+                        Object[].class)
+                .setParameter("numeros", numeros)
+                .setParameter("fecha", fecha)
+                .getResultList();
+
+        // El primero de cada habitación es el que gana, igual que en actualizarEstadoActual
+        Map<Integer, EstadoHab> estados = new HashMap<>();
+        for (Object[] fila : filas) {
+            estados.putIfAbsent((Integer) fila[0], (EstadoHab) fila[1]);
+        }
+        return estados;
+    }
+
     @Override
     public void actualizar(Habitacion habitacion) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.merge(habitacion);
             transaction.commit();
@@ -257,10 +509,13 @@ public class HabitacionDAOImpl implements HabitacionDAO {
     @Override
     public void eliminar(Integer numero) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             Habitacion habitacion = session.get(Habitacion.class, numero);
             if (habitacion != null) {
+                // Soltar la referencia al estado actual antes de que la cascada borre los estados
+                habitacion.setEstadoActual(null);
+                session.flush();
                 session.remove(habitacion);
             }
             transaction.commit();
@@ -274,7 +529,7 @@ public class HabitacionDAOImpl implements HabitacionDAO {
 
     @Override
     public boolean existeNumero(Integer numero) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             Long count = session.createQuery(
                             "SELECT COUNT(h) FROM Habitacion h WHERE h.numero = :numero", Long.class)
                     .setParameter("numero", numero)
@@ -285,7 +540,7 @@ public class HabitacionDAOImpl implements HabitacionDAO {
 
     @Override
     public Long contarPorTipo(TipoHabitacion tipo) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT COUNT(h) FROM Habitacion h WHERE h.tipo = :tipo", Long.class)
                     .setParameter("tipo", tipo)
@@ -1,21 +1,31 @@
 package ar.utn.hotel.dao.implement;
 
 import ar.utn.hotel.dao.interfaces.HuespedDAO;
+import ar.utn.hotel.dto.CursorPagina;
 import ar.utn.hotel.dto.HuespedDTO;
+import ar.utn.hotel.dto.Pagina;
 import ar.utn.hotel.model.Huesped;
 import utils.HibernateUtil;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.query.Query;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class HuespedDAOImpl implements HuespedDAO {
 
+    // Columnas de HuespedDTO, en el orden que lee aDTO
+    private static final String PROYECCION_DTO =
+            "SELECT h.id, h.nombre, h.apellido, h.numeroDocumento, h.tipoDocumento, h.telefono, " +
+                    "h.email, h.cuit, h.posicionIVA, h.fechaNacimiento, h.ocupacion, h.nacionalidad, d.id " +
+                    "FROM Huesped h LEFT JOIN h.direccion d ";
+
     @Override
     public Huesped guardar(Huesped huesped) {
         Transaction tx = null;
-        try (Session s = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session s = HibernateUtil.abrirSesion()) {
             tx = s.beginTransaction();
             s.persist(huesped);
             tx.commit();
@@ -28,22 +38,82 @@ public class HuespedDAOImpl implements HuespedDAO {
 
     @Override
     public Huesped obtenerPorId(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.get(Huesped.class, id);
         }
     }
 
     @Override
     public List<Huesped> obtenerTodos() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery("FROM Huesped", Huesped.class).list();
         }
     }
 
+    /**
+     * Página de huéspedes ordenados por apellido, nombre e id, a partir del cursor
+     * (null para la primera página). La comparación por fila (apellido, nombre, id)
+     * es el límite inferior del índice idx_huesped_apellido_nombre: cada página cuesta
+     * lo mismo sin importar cuántas haya antes.
+     */
+    @Override
+    public Pagina<HuespedDTO> obtenerPagina(CursorPagina desde, int tamanio) {
+        int filas = Paginacion.filasAPedir(tamanio);
+        String orden = "ORDER BY h.apellido, h.nombre, h.id";
+
+        try (Session session = HibernateUtil.abrirSesion()) {
+            List<Object[]> resultado;
+            if (desde == null) {
+                resultado = session.createQuery(PROYECCION_DTO + orden, Object[].class)
+                        .setMaxResults(filas)
+                        .getResultList();
+            } else {
+                resultado = session.createQuery(PROYECCION_DTO +
+                                        "WHERE (h.apellido, h.nombre, h.id) > (:apellido, :nombre, :id) " + orden,
+                                Object[].class)
+                        .setParameter("apellido", desde.<String>clave(0))
+                        .setParameter("nombre", desde.<String>clave(1))
+                        .setParameter("id", desde.<Long>clave(2))
+                        .setMaxResults(filas)
+                        .getResultList();
+            }
+            List<HuespedDTO> huespedes = resultado.stream().map(HuespedDAOImpl::aDTO).toList();
+            return Paginacion.armar(huespedes, tamanio,
+                    h -> CursorPagina.de(h.getApellido(), h.getNombre(), h.getId()));
+        }
+    }
+
+    /**
+     * Recorre todos los huéspedes en orden de id sin cargarlos en memoria
+     */
+    @Override
+    public long recorrerTodos(Consumer<HuespedDTO> consumidor) {
+        return LecturaEnStreaming.recorrer(PROYECCION_DTO + "ORDER BY h.id",
+                fila -> consumidor.accept(aDTO(fila)));
+    }
+
+    private static HuespedDTO aDTO(Object[] fila) {
+        return HuespedDTO.builder()
+                .id((Long) fila[0])
+                .nombre((String) fila[1])
+                .apellido((String) fila[2])
+                .numeroDocumento((String) fila[3])
+                .tipoDocumento((String) fila[4])
+                .telefono((String) fila[5])
+                .email((String) fila[6])
+                .cuit((String) fila[7])
+                .posicionIVA((String) fila[8])
+                .fechaNacimiento((String) fila[9])
+                .ocupacion((String) fila[10])
+                .nacionalidad((String) fila[11])
+                .idDireccion((Long) fila[12])
+                .build();
+    }
+
     @Override
     public void actualizar(Huesped huesped) {
         Transaction tx = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             tx = session.beginTransaction();
             session.merge(huesped);
             tx.commit();
@@ -56,7 +126,7 @@ public class HuespedDAOImpl implements HuespedDAO {
     @Override
     public void eliminar(Long id) {
         Transaction tx = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             tx = session.beginTransaction();
             Huesped huesped = session.get(Huesped.class, id);
             if (huesped != null) {
@@ -71,7 +141,7 @@ public class HuespedDAOImpl implements HuespedDAO {
 
     @Override
     public boolean existePorDocumento(String numeroDocumento, String tipoDocumento) {
-        try (Session s = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session s = HibernateUtil.abrirSesion()) {
             Long count = s.createQuery("""
                     SELECT COUNT(h) FROM Huesped h
                     WHERE h.numeroDocumento = :numDoc
@@ -84,71 +154,106 @@ public class HuespedDAOImpl implements HuespedDAO {
         }
     }
 
+    @Override
+    public HuespedDTO obtenerDTOPorId(Long id) {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            Object[] fila = session.createQuery(PROYECCION_DTO + "WHERE h.id = :id", Object[].class)
+                    .setParameter("id", id)
+                    .uniqueResult();
+            return fila != null ? aDTO(fila) : null;
+        }
+    }
+
     @Override
     public List<Huesped> buscarHuesped(HuespedDTO dto) {
-        try (Session s = HibernateUtil.getSessionFactory().openSession()) {
-            StringBuilder hql = new StringBuilder("SELECT h FROM Huesped h WHERE 1=1");
+        String filtros = filtrosBusqueda(dto);
+        if (filtros.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            boolean hayFiltros = false;
+        try (Session s = HibernateUtil.abrirSesion()) {
+            Query<Huesped> query = s.createQuery("SELECT h FROM Huesped h WHERE 1=1" + filtros, Huesped.class);
+            asignarParametrosBusqueda(query, dto);
+            return query.getResultList();
+        }
+    }
 
-            if (dto.getNombre() != null && !dto.getNombre().trim().isEmpty()) {
-                hql.append(" AND LOWER(h.nombre) LIKE LOWER(:nombre)");
-                hayFiltros = true;
-            }
-            if (dto.getApellido() != null && !dto.getApellido().trim().isEmpty()) {
-                hql.append(" AND LOWER(h.apellido) LIKE LOWER(:apellido)");
-                hayFiltros = true;
-            }
-            if (dto.getNumeroDocumento() != null && !dto.getNumeroDocumento().trim().isEmpty()) {
-                hql.append(" AND h.numeroDocumento = :numDoc");
-                hayFiltros = true;
-            }
-            if (dto.getTipoDocumento() != null && !dto.getTipoDocumento().trim().isEmpty()) {
-                hql.append(" AND h.tipoDocumento = :tipoDoc");
-                hayFiltros = true;
-            }
-            if (dto.getTelefono() != null && !dto.getTelefono().trim().isEmpty()) {
-                hql.append(" AND h.telefono = :telefono");
-                hayFiltros = true;
-            }
-            if (dto.getEmail() != null && !dto.getEmail().trim().isEmpty()) {
-                hql.append(" AND LOWER(h.email) = LOWER(:email)");
-                hayFiltros = true;
-            }
-            if (dto.getCuit() != null && !dto.getCuit().trim().isEmpty()) {
-                hql.append(" AND h.cuit = :cuit");
-                hayFiltros = true;
-            }
+    /**
+     * Misma búsqueda que buscarHuesped, pero devuelve sólo las columnas de HuespedDTO
+     */
+    @Override
+    public List<HuespedDTO> buscarHuespedDTO(HuespedDTO dto) {
+        String filtros = filtrosBusqueda(dto);
+        if (filtros.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-            if (!hayFiltros) {
-                return new ArrayList<>();
-            }
+        try (Session s = HibernateUtil.abrirSesion()) {
+            Query<Object[]> query = s.createQuery(
+                    PROYECCION_DTO + "WHERE 1=1" + filtros + " ORDER BY h.apellido, h.nombre, h.id", Object[].class);
+            asignarParametrosBusqueda(query, dto);
+            return query.getResultList().stream()
+                    .map(HuespedDAOImpl::aDTO)
+                    .toList();
+        }
+    }
 
-            var query = s.createQuery(hql.toString(), Huesped.class);
+    /**
+     * Condiciones de búsqueda para los campos cargados del DTO; vacío si no hay ninguno
+     */
+    private static String filtrosBusqueda(HuespedDTO dto) {
+        StringBuilder hql = new StringBuilder();
 
-            if (dto.getNombre() != null && !dto.getNombre().trim().isEmpty()) {
-                query.setParameter("nombre", "%" + dto.getNombre().trim() + "%");
-            }
-            if (dto.getApellido() != null && !dto.getApellido().trim().isEmpty()) {
-                query.setParameter("apellido", "%" + dto.getApellido().trim() + "%");
-            }
-            if (dto.getNumeroDocumento() != null && !dto.getNumeroDocumento().trim().isEmpty()) {
-                query.setParameter("numDoc", dto.getNumeroDocumento().trim());
-            }
-            if (dto.getTipoDocumento() != null && !dto.getTipoDocumento().trim().isEmpty()) {
-                query.setParameter("tipoDoc", dto.getTipoDocumento().trim());
-            }
-            if (dto.getTelefono() != null && !dto.getTelefono().trim().isEmpty()) {
-                query.setParameter("telefono", dto.getTelefono().trim());
-            }
-            if (dto.getEmail() != null && !dto.getEmail().trim().isEmpty()) {
-                query.setParameter("email", dto.getEmail().trim());
-            }
-            if (dto.getCuit() != null && !dto.getCuit().trim().isEmpty()) {
-                query.setParameter("cuit", dto.getCuit().trim());
-            }
+        if (tieneValor(dto.getNombre())) {
+            hql.append(" AND LOWER(h.nombre) LIKE LOWER(:nombre)");
+        }
+        if (tieneValor(dto.getApellido())) {
+            hql.append(" AND LOWER(h.apellido) LIKE LOWER(:apellido)");
+        }
+        if (tieneValor(dto.getNumeroDocumento())) {
+            hql.append(" AND h.numeroDocumento = :numDoc");
+        }
+        if (tieneValor(dto.getTipoDocumento())) {
+            hql.append(" AND h.tipoDocumento = :tipoDoc");
+        }
+        if (tieneValor(dto.getTelefono())) {
+            hql.append(" AND h.telefono = :telefono");
+        }
+        if (tieneValor(dto.getEmail())) {
+            hql.append(" AND LOWER(h.email) = LOWER(:email)");
+        }
+        if (tieneValor(dto.getCuit())) {
+            hql.append(" AND h.cuit = :cuit");
+        }
 
-            return query.getResultList();
+        return hql.toString();
+    }
+
+    private static void asignarParametrosBusqueda(Query<?> query, HuespedDTO dto) {
+        if (tieneValor(dto.getNombre())) {
+            query.setParameter("nombre", "%" + dto.getNombre().trim() + "%");
+        }
+        if (tieneValor(dto.getApellido())) {
+            query.setParameter("apellido", "%" + dto.getApellido().trim() + "%");
         }
+        if (tieneValor(dto.getNumeroDocumento())) {
+            query.setParameter("numDoc", dto.getNumeroDocumento().trim());
+        }
+        if (tieneValor(dto.getTipoDocumento())) {
+            query.setParameter("tipoDoc", dto.getTipoDocumento().trim());
+        }
+        if (tieneValor(dto.getTelefono())) {
+            query.setParameter("telefono", dto.getTelefono().trim());
+        }
+        if (tieneValor(dto.getEmail())) {
+            query.setParameter("email", dto.getEmail().trim());
+        }
+        if (tieneValor(dto.getCuit())) {
+            query.setParameter("cuit", dto.getCuit().trim());
+        }
+    }
+
+    private static boolean tieneValor(String valor) {
+        return valor != null && !valor.trim().isEmpty();
     }
-}
\ No newline at end of file
+}
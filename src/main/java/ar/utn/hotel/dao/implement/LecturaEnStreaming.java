@@ -0,0 +1,52 @@
+package ar.utn.hotel.dao.implement;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import utils.HibernateUtil;
+
+import java.util.function.Consumer;
+
+/**
+ * Recorre el resultado de una consulta fila por fila sin materializarlo.
+ * Usa una sesión sin estado (no hay contexto de persistencia que crezca con cada fila)
+ * y un cursor de sólo avance: el driver de PostgreSQL trae las filas de a
+ * TAMANIO_FETCH porque las conexiones del pool no usan autocommit.
+ */
+class LecturaEnStreaming {
+
+    static final int TAMANIO_FETCH = 500;
+
+    private LecturaEnStreaming() {
+    }
+
+    /**
+     * Entrega cada fila de la proyección al consumidor a medida que llega de la base
+     */
+    static long recorrer(String hql, Consumer<Object[]> consumidor) {
+        Transaction transaction = null;
+        try (StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession()) {
+            transaction = session.beginTransaction();
+
+            long filas = 0;
+            try (ScrollableResults<Object[]> resultados = session.createQuery(hql, Object[].class)
+                    .setFetchSize(TAMANIO_FETCH)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (resultados.next()) {
+                    consumidor.accept(resultados.get());
+                    filas++;
+                }
+            }
+
+            transaction.commit();
+            return filas;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error al recorrer resultados: " + e.getMessage(), e);
+        }
+    }
+}
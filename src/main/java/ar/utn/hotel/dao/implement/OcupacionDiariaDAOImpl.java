@@ -0,0 +1,143 @@
+package ar.utn.hotel.dao.implement;
+
+import ar.utn.hotel.dao.interfaces.OcupacionDiariaDAO;
+import ar.utn.hotel.dto.OcupacionDiaDTO;
+import ar.utn.hotel.model.EstadoHabitacion;
+import utils.HibernateUtil;
+import enums.EstadoHab;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class OcupacionDiariaDAOImpl implements OcupacionDiariaDAO {
+
+    // Expande estado_habitacion a un estado por (habitación, día) en la base y guarda solo
+    // los días no disponibles. Para cada día vale el intervalo que gana según
+    // EstadoHabitacion.PRECEDENCIA, el mismo criterio que la grilla y el calendario.
+    private static final String SQL_INSERTAR =
+            "INSERT INTO ocupacion_diaria (fecha, numero_habitacion, id_tipo_habitacion, estado) " +
+            "SELECT CAST(d.dia AS date), h.numero, h.id_tipo_habitacion, e.estado " +
+            "FROM habitacion h " +
+            "CROSS JOIN generate_series(CAST(:desde AS date), CAST(:hasta AS date), interval '1 day') AS d(dia) " +
+            "JOIN LATERAL (" +
+            "    SELECT te.estado FROM estado_habitacion eh " +
+            "    JOIN tipo_estado te ON te.id = eh.id_tipo_estado " +
+            "    WHERE eh.numero_habitacion = h.numero " +
+            "    AND eh.fecha_desde <= d.dia " +
+            "    AND (eh.fecha_hasta IS NULL OR eh.fecha_hasta >= d.dia) " +
+            "    ORDER BY " + EstadoHabitacion.ORDEN_PRECEDENCIA_SQL + " " +
+            "    LIMIT 1" +
+            ") e ON true " +
+            "WHERE e.estado <> '" + EstadoHab.DISPONIBLE.name() + "'";
+
+    private static final String SQL_BORRAR =
+            "DELETE FROM ocupacion_diaria WHERE fecha BETWEEN :desde AND :hasta";
+
+    private static final String FILTRO_HABITACION_INSERTAR = " AND h.numero = :numero";
+    private static final String FILTRO_HABITACION_BORRAR = " AND numero_habitacion = :numero";
+
+    @Override
+    public void recalcular(Integer numeroHabitacion, LocalDate desde, LocalDate hasta) {
+        ejecutarRecalculo(numeroHabitacion, desde, hasta);
+    }
+
+    @Override
+    public void regenerar(LocalDate desde, LocalDate hasta) {
+        ejecutarRecalculo(null, desde, hasta);
+    }
+
+    @Override
+    public List<OcupacionDiaDTO> contarPorDia(LocalDate desde, LocalDate hasta) {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            return session.createQuery(
+                            "SELECT o.fecha, o.estado, COUNT(o) FROM OcupacionDiaria o " +
+                                    "WHERE o.fecha BETWEEN :desde AND :hasta " +
+                                    "GROUP BY o.fecha, o.estado " +
+                                    "ORDER BY o.fecha, o.estado",
+                            Object[].class)
+                    .setParameter("desde", desde)
+                    .setParameter("hasta", hasta)
+                    .getResultList()
+                    .stream()
+                    .map(fila -> OcupacionDiaDTO.builder()
+                            .fecha((LocalDate) fila[0])
+                            .estado((EstadoHab) fila[1])
+                            .cantidad((Long) fila[2])
+                            .build())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public List<OcupacionDiaDTO> contarPorDiaYTipo(LocalDate desde, LocalDate hasta) {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            return session.createQuery(
+                            "SELECT o.fecha, o.estado, t.nombre, COUNT(o) FROM OcupacionDiaria o " +
+                                    "JOIN TipoHabitacion t ON t.idTipoHabitacion = o.idTipoHabitacion " +
+                                    "WHERE o.fecha BETWEEN :desde AND :hasta " +
+                                    "GROUP BY o.fecha, o.estado, t.nombre " +
+                                    "ORDER BY o.fecha, t.nombre, o.estado",
+                            Object[].class)
+                    .setParameter("desde", desde)
+                    .setParameter("hasta", hasta)
+                    .getResultList()
+                    .stream()
+                    .map(fila -> OcupacionDiaDTO.builder()
+                            .fecha((LocalDate) fila[0])
+                            .estado((EstadoHab) fila[1])
+                            .tipoHabitacion((String) fila[2])
+                            .cantidad((Long) fila[3])
+                            .build())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Reemplaza las filas del rango (de una habitación o de todas) por las que
+     * resultan de los estados actuales. Dentro de una unidad de trabajo usa su
+     * transacción, así la foto se confirma junto con el cambio de estado.
+     */
+    private void ejecutarRecalculo(Integer numeroHabitacion, LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("El rango a recalcular debe tener inicio y fin");
+        }
+        if (desde.isAfter(hasta)) {
+            return;
+        }
+
+        String sqlBorrar = numeroHabitacion != null ? SQL_BORRAR + FILTRO_HABITACION_BORRAR : SQL_BORRAR;
+        String sqlInsertar = numeroHabitacion != null ? SQL_INSERTAR + FILTRO_HABITACION_INSERTAR : SQL_INSERTAR;
+
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.abrirSesion()) {
+            transaction = session.beginTransaction();
+            // Los estados recién cambiados en la sesión tienen que estar en la base antes del INSERT ... SELECT
+            session.flush();
+
+            MutationQuery borrar = session.createNativeMutationQuery(sqlBorrar)
+                    .setParameter("desde", desde)
+                    .setParameter("hasta", hasta);
+            MutationQuery insertar = session.createNativeMutationQuery(sqlInsertar)
+                    .setParameter("desde", desde)
+                    .setParameter("hasta", hasta);
+            if (numeroHabitacion != null) {
+                borrar.setParameter("numero", numeroHabitacion);
+                insertar.setParameter("numero", numeroHabitacion);
+            }
+
+            borrar.executeUpdate();
+            insertar.executeUpdate();
+
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error al recalcular ocupación diaria: " + e.getMessage(), e);
+        }
+    }
+}
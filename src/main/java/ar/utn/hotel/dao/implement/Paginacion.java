@@ -0,0 +1,35 @@
+package ar.utn.hotel.dao.implement;
+
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.Pagina;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Auxiliares de la paginación por clave. Cada consulta pide tamanio + 1 filas:
+ * la fila extra sólo indica que hay una página siguiente y no se devuelve.
+ */
+class Paginacion {
+
+    static final int TAMANIO_MAXIMO = 500;
+
+    private Paginacion() {
+    }
+
+    static int filasAPedir(int tamanio) {
+        if (tamanio < 1 || tamanio > TAMANIO_MAXIMO) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANIO_MAXIMO + ": " + tamanio);
+        }
+        return tamanio + 1;
+    }
+
+    static <T> Pagina<T> armar(List<T> filas, int tamanio, Function<T, CursorPagina> cursorDe) {
+        if (filas.size() <= tamanio) {
+            return new Pagina<>(filas, null);
+        }
+        List<T> elementos = filas.subList(0, tamanio);
+        return new Pagina<>(List.copyOf(elementos), cursorDe.apply(elementos.get(tamanio - 1)));
+    }
+}
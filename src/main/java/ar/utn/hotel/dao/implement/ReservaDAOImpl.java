@@ -2,18 +2,44 @@ package ar.utn.hotel.dao.implement;
 
 import ar.utn.hotel.dao.interfaces.ReservaDAO;
 import ar.utn.hotel.dao.interfaces.TipoEstadoDAO;
+import ar.utn.hotel.dto.ConflictoReservaDTO;
 import ar.utn.hotel.dto.CrearReservaDTO;
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.Pagina;
+import ar.utn.hotel.dto.ReservaDTO;
+import ar.utn.hotel.eventos.CambioEstadoHabitacion;
+import ar.utn.hotel.eventos.NotificadorEstadosHabitacion;
+import ar.utn.hotel.excepciones.HabitacionNoDisponibleException;
 import ar.utn.hotel.model.*;
 import enums.EstadoHab;
+import org.hibernate.JDBCException;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.query.Query;
 import utils.HibernateUtil;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class ReservaDAOImpl implements ReservaDAO {
 
+    // Exactamente las columnas de ReservaDTO; el resultado son escalares, sin entidades administradas
+    private static final String PROYECCION_DTO =
+            "SELECT r.id, h.id, h.nombre, h.apellido, h.telefono, hab.numero, " +
+                    "r.fechaInicio, r.fechaFin, r.cantHuespedes, r.descuento, e.idEstadia " +
+                    "FROM Reserva r JOIN r.huesped h JOIN r.habitacion hab LEFT JOIN r.estadia e ";
+
+    // SQLSTATE de PostgreSQL para una violación de restricción EXCLUDE (reserva_sin_solapamiento)
+    private static final String ESTADO_EXCLUSION = "23P01";
+
     private final TipoEstadoDAO tipoEstadoDAO;
 
     public ReservaDAOImpl(TipoEstadoDAO tipoEstadoDAO) {
@@ -27,7 +53,7 @@ public class ReservaDAOImpl implements ReservaDAO {
 
         try {
             // 1. Abrimos la sesión manualmente
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = HibernateUtil.abrirSesion();
             transaction = session.beginTransaction();
 
             // --- VALIDACIONES ---
@@ -57,8 +83,9 @@ public class ReservaDAOImpl implements ReservaDAO {
                 throw new IllegalStateException("No existe el tipo estado RESERVADA en el catálogo");
             }
 
-            // D. NUEVA VALIDACIÓN: Verificar solapamiento de fechas
-            // Consultamos si existe alguna reserva para esta habitación que choque con las fechas solicitadas
+            // D. Verificar solapamiento de fechas
+            // Sólo adelanta el error habitual: dos terminales pueden pasar esta consulta a la vez,
+            // y quien garantiza que no haya doble reserva es la restricción reserva_sin_solapamiento
             Long coincidencias = session.createQuery(
                             "SELECT COUNT(r) FROM Reserva r " +
                                     "WHERE r.habitacion.id = :idHabitacion " +
@@ -71,10 +98,8 @@ public class ReservaDAOImpl implements ReservaDAO {
                     .uniqueResult();
 
             if (coincidencias > 0) {
-                throw new IllegalStateException(
-                        "La habitación " + dto.getNumeroHabitacion() +
-                                " ya se encuentra reservada en el rango de fechas seleccionado."
-                );
+                throw new HabitacionNoDisponibleException(
+                        dto.getNumeroHabitacion(), dto.getFechaInicio(), dto.getFechaFin());
             }
 
             // --- PERSISTENCIA ---
@@ -91,6 +116,7 @@ public class ReservaDAOImpl implements ReservaDAO {
 
             habitacion.getEstados().add(nuevoEstado);
             session.persist(nuevoEstado);
+            HabitacionDAOImpl.actualizarEstadoActual(session, habitacion);
 
             // 2. Crear la Reserva
             Reserva reserva = Reserva.builder()
@@ -105,12 +131,22 @@ public class ReservaDAOImpl implements ReservaDAO {
             session.persist(reserva);
 
             transaction.commit();
+            NotificadorEstadosHabitacion.publicar(new CambioEstadoHabitacion(
+                    habitacion.getNumero(), dto.getFechaInicio(), dto.getFechaFin(), EstadoHab.RESERVADA));
             return reserva;
 
         } catch (Exception e) {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
+            if (e instanceof HabitacionNoDisponibleException noDisponible) {
+                throw noDisponible;
+            }
+            if (esSolapamiento(e)) {
+                // Otra terminal reservó la misma habitación entre la validación y el commit
+                throw new HabitacionNoDisponibleException(
+                        dto.getNumeroHabitacion(), dto.getFechaInicio(), dto.getFechaFin(), e);
+            }
             // Imprimimos el error para debug
             System.err.println("ERROR EN DAO CREAR RESERVA: " + e.getMessage());
             e.printStackTrace();
@@ -122,13 +158,217 @@ public class ReservaDAOImpl implements ReservaDAO {
         }
     }
 
+    /**
+     * Crea las reservas de un grupo cuya disponibilidad ya se verificó con buscarConflictos.
+     * A diferencia de crearReserva no consulta cada habitación con su historial ni repite el
+     * control de solapamiento por reserva: las habitaciones y los huéspedes se leen con una
+     * consulta cada uno y los INSERT van en lote al confirmar. Si otra terminal reservó en
+     * el medio, reserva_sin_solapamiento rechaza el grupo entero.
+     *
+     * @return las reservas creadas, en el mismo orden que los DTO
+     */
+    @Override
+    public List<Reserva> crearReservasVerificadas(List<CrearReservaDTO> dtos) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.abrirSesion()) {
+            transaction = session.beginTransaction();
+
+            Set<Integer> numeros = new HashSet<>();
+            Set<Long> idsHuespedes = new HashSet<>();
+            for (CrearReservaDTO dto : dtos) {
+                numeros.add(dto.getNumeroHabitacion());
+                idsHuespedes.add(dto.getIdHuesped());
+            }
+
+            Map<Integer, Habitacion> habitaciones = new HashMap<>();
+            for (Habitacion habitacion : session.createQuery(
+                            "SELECT h FROM Habitacion h WHERE h.numero IN :numeros", Habitacion.class)
+                    .setParameter("numeros", numeros)
+                    .getResultList()) {
+                habitaciones.put(habitacion.getNumero(), habitacion);
+            }
+            for (Integer numero : numeros) {
+                if (!habitaciones.containsKey(numero)) {
+                    throw new IllegalArgumentException("La habitación número " + numero + " no existe");
+                }
+            }
+
+            List<Long> huespedesRegistrados = session.createQuery(
+                            "SELECT h.id FROM Huesped h WHERE h.id IN :ids", Long.class)
+                    .setParameter("ids", idsHuespedes)
+                    .getResultList();
+            if (huespedesRegistrados.size() < idsHuespedes.size()) {
+                throw new IllegalArgumentException("Error: El huésped no existe en el sistema.");
+            }
+
+            TipoEstado tipoReservada = tipoEstadoDAO.buscarPorEstado(EstadoHab.RESERVADA);
+            if (tipoReservada == null) {
+                throw new IllegalStateException("No existe el tipo estado RESERVADA en el catálogo");
+            }
+
+            LocalDate hoy = LocalDate.now();
+            Set<Habitacion> cambianHoy = new HashSet<>();
+            List<Reserva> reservas = new ArrayList<>();
+            for (CrearReservaDTO dto : dtos) {
+                Habitacion habitacion = habitaciones.get(dto.getNumeroHabitacion());
+
+                session.persist(EstadoHabitacion.builder()
+                        .habitacion(habitacion)
+                        .tipoEstado(tipoReservada)
+                        .fechaDesde(dto.getFechaInicio())
+                        .fechaHasta(dto.getFechaFin())
+                        .build());
+
+                Reserva reserva = Reserva.builder()
+                        .huesped(session.getReference(Huesped.class, dto.getIdHuesped()))
+                        .habitacion(habitacion)
+                        .fechaInicio(dto.getFechaInicio())
+                        .fechaFin(dto.getFechaFin())
+                        .cantHuespedes(dto.getCantHuespedes())
+                        .descuento(dto.getDescuento())
+                        .build();
+                session.persist(reserva);
+                reservas.add(reserva);
+
+                // Una reserva a futuro no cambia el estado de hoy: el puntero sigue valiendo
+                if (!dto.getFechaInicio().isAfter(hoy) && !dto.getFechaFin().isBefore(hoy)) {
+                    cambianHoy.add(habitacion);
+                }
+            }
+
+            for (Habitacion habitacion : cambianHoy) {
+                HabitacionDAOImpl.actualizarEstadoActual(session, habitacion);
+            }
+
+            transaction.commit();
+            for (CrearReservaDTO dto : dtos) {
+                NotificadorEstadosHabitacion.publicar(new CambioEstadoHabitacion(
+                        dto.getNumeroHabitacion(), dto.getFechaInicio(), dto.getFechaFin(), EstadoHab.RESERVADA));
+            }
+            return reservas;
+
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (esSolapamiento(e)) {
+                // Otra terminal reservó alguna de las habitaciones entre la verificación y el commit
+                throw new IllegalStateException("Otra reserva ocupó alguna de las habitaciones del grupo " +
+                        "mientras se grababa. Verifique la disponibilidad nuevamente.", e);
+            }
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Error al crear las reservas del grupo: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indica si la excepción (o alguna de sus causas) es la violación de reserva_sin_solapamiento
+     */
+    private static boolean esSolapamiento(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            String estado = t instanceof JDBCException jdbc ? jdbc.getSQLState()
+                    : t instanceof SQLException sql ? sql.getSQLState() : null;
+            if (ESTADO_EXCLUSION.equals(estado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<ConflictoReservaDTO> buscarConflictos(List<CrearReservaDTO> solicitudes) {
+        List<ConflictoReservaDTO> conflictos = new ArrayList<>();
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            return conflictos;
+        }
+
+        // Conflictos dentro del mismo lote: misma habitación con rangos que se intersecan
+        for (int i = 0; i < solicitudes.size(); i++) {
+            for (int j = i + 1; j < solicitudes.size(); j++) {
+                CrearReservaDTO a = solicitudes.get(i);
+                CrearReservaDTO b = solicitudes.get(j);
+                if (a.getNumeroHabitacion().equals(b.getNumeroHabitacion())
+                        && seSuperponen(a.getFechaInicio(), a.getFechaFin(), b.getFechaInicio(), b.getFechaFin())) {
+                    conflictos.add(ConflictoReservaDTO.builder()
+                            .indiceSolicitud(j)
+                            .numeroHabitacion(b.getNumeroHabitacion())
+                            .fechaInicio(b.getFechaInicio())
+                            .fechaFin(b.getFechaFin())
+                            .indiceSolicitudConflicto(i)
+                            .fechaInicioConflicto(a.getFechaInicio())
+                            .fechaFinConflicto(a.getFechaFin())
+                            .build());
+                }
+            }
+        }
+
+        // Conflictos contra reservas existentes: un predicado por par, todos en la misma consulta
+        StringBuilder hql = new StringBuilder(
+                "SELECT r.id, r.habitacion.numero, r.fechaInicio, r.fechaFin FROM Reserva r WHERE ");
+        for (int i = 0; i < solicitudes.size(); i++) {
+            if (i > 0) {
+                hql.append(" OR ");
+            }
+            hql.append("(r.habitacion.numero = :hab").append(i)
+                    .append(" AND r.fechaInicio < :fin").append(i)
+                    .append(" AND r.fechaFin > :ini").append(i).append(")");
+        }
+
+        try (Session session = HibernateUtil.abrirSesion()) {
+            var query = session.createQuery(hql.toString(), Object[].class);
+            for (int i = 0; i < solicitudes.size(); i++) {
+                CrearReservaDTO solicitud = solicitudes.get(i);
+                query.setParameter("hab" + i, solicitud.getNumeroHabitacion());
+                query.setParameter("ini" + i, solicitud.getFechaInicio());
+                query.setParameter("fin" + i, solicitud.getFechaFin());
+            }
+
+            // Cada reserva devuelta choca con al menos un par: se asigna a todos los que interseca
+            for (Object[] fila : query.getResultList()) {
+                Long idReserva = (Long) fila[0];
+                Integer numero = (Integer) fila[1];
+                LocalDate inicio = (LocalDate) fila[2];
+                LocalDate fin = (LocalDate) fila[3];
+
+                for (int i = 0; i < solicitudes.size(); i++) {
+                    CrearReservaDTO solicitud = solicitudes.get(i);
+                    if (solicitud.getNumeroHabitacion().equals(numero)
+                            && seSuperponen(solicitud.getFechaInicio(), solicitud.getFechaFin(), inicio, fin)) {
+                        conflictos.add(ConflictoReservaDTO.builder()
+                                .indiceSolicitud(i)
+                                .numeroHabitacion(numero)
+                                .fechaInicio(solicitud.getFechaInicio())
+                                .fechaFin(solicitud.getFechaFin())
+                                .idReservaExistente(idReserva)
+                                .fechaInicioConflicto(inicio)
+                                .fechaFinConflicto(fin)
+                                .build());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Error al verificar disponibilidad de reservas: " + e.getMessage(), e);
+        }
+
+        conflictos.sort(Comparator.comparing(ConflictoReservaDTO::getIndiceSolicitud));
+        return conflictos;
+    }
+
+    /**
+     * Mismo criterio de intersección que la validación de crearReserva
+     */
+    private boolean seSuperponen(LocalDate inicioA, LocalDate finA, LocalDate inicioB, LocalDate finB) {
+        return inicioA.isBefore(finB) && finA.isAfter(inicioB);
+    }
+
     @Override
     public Reserva obtenerPorId(Long id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
-                            "SELECT DISTINCT r FROM Reserva r " +
-                                    "LEFT JOIN FETCH r.habitacion h " +
-                                    "LEFT JOIN FETCH h.estados " +
+                            "SELECT r FROM Reserva r " +
+                                    "LEFT JOIN FETCH r.habitacion " +
                                     "LEFT JOIN FETCH r.huesped " +
                                     "WHERE r.id = :id",
                             Reserva.class)
@@ -139,7 +379,7 @@ public class ReservaDAOImpl implements ReservaDAO {
 
     @Override
     public List<Reserva> obtenerTodas() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT r FROM Reserva r " +
                                     "LEFT JOIN FETCH r.habitacion " +
@@ -150,9 +390,110 @@ public class ReservaDAOImpl implements ReservaDAO {
         }
     }
 
+    /**
+     * Página de reservas de la más reciente a la más antigua (fecha de inicio e id
+     * descendentes), a partir del cursor. La comparación por fila (fechaInicio, id)
+     * es un límite del índice idx_reserva_fecha_inicio, recorrido hacia atrás.
+     */
+    @Override
+    public Pagina<Reserva> obtenerPagina(CursorPagina desde, int tamanio) {
+        int filas = Paginacion.filasAPedir(tamanio);
+        String select = "SELECT r FROM Reserva r " +
+                "JOIN FETCH r.habitacion " +
+                "JOIN FETCH r.huesped ";
+        String orden = "ORDER BY r.fechaInicio DESC, r.id DESC";
+
+        try (Session session = HibernateUtil.abrirSesion()) {
+            List<Reserva> reservas;
+            if (desde == null) {
+                reservas = session.createQuery(select + orden, Reserva.class)
+                        .setMaxResults(filas)
+                        .getResultList();
+            } else {
+                reservas = session.createQuery(select +
+                                        "WHERE (r.fechaInicio, r.id) < (:fecha, :id) " + orden,
+                                Reserva.class)
+                        .setParameter("fecha", desde.<LocalDate>clave(0))
+                        .setParameter("id", desde.<Long>clave(1))
+                        .setMaxResults(filas)
+                        .getResultList();
+            }
+            return Paginacion.armar(reservas, tamanio, r -> CursorPagina.de(r.getFechaInicio(), r.getId()));
+        }
+    }
+
+    /**
+     * Recorre todas las reservas en orden de id sin cargarlas en memoria
+     */
+    @Override
+    public long recorrerTodas(Consumer<ReservaDTO> consumidor) {
+        return LecturaEnStreaming.recorrer(PROYECCION_DTO + "ORDER BY r.id",
+                fila -> consumidor.accept(aDTO(fila)));
+    }
+
+    // ========== PROYECCIONES A DTO ==========
+
+    @Override
+    public ReservaDTO obtenerDTOPorId(Long id) {
+        List<ReservaDTO> reservas = listarDTOs("WHERE r.id = :id", "id", id);
+        return reservas.isEmpty() ? null : reservas.get(0);
+    }
+
+    @Override
+    public List<ReservaDTO> listarDTOs() {
+        return listarDTOs("ORDER BY r.fechaInicio DESC");
+    }
+
+    @Override
+    public List<ReservaDTO> listarDTOsPorHuesped(Long idHuesped) {
+        return listarDTOs("WHERE h.id = :idHuesped ORDER BY r.fechaInicio DESC", "idHuesped", idHuesped);
+    }
+
+    @Override
+    public List<ReservaDTO> listarDTOsPorFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        return listarDTOs("WHERE r.fechaInicio <= :fechaFin AND r.fechaFin >= :fechaInicio ORDER BY r.fechaInicio",
+                "fechaInicio", fechaInicio, "fechaFin", fechaFin);
+    }
+
+    @Override
+    public List<ReservaDTO> listarDTOsPorHabitacion(Integer numeroHabitacion) {
+        return listarDTOs("WHERE hab.numero = :numero ORDER BY r.fechaInicio DESC", "numero", numeroHabitacion);
+    }
+
+    /**
+     * Ejecuta la proyección con el filtro y orden dados; los parámetros van como pares nombre, valor
+     */
+    private List<ReservaDTO> listarDTOs(String filtro, Object... parametros) {
+        try (Session session = HibernateUtil.abrirSesion()) {
+            Query<Object[]> query = session.createQuery(PROYECCION_DTO + filtro, Object[].class);
+            for (int i = 0; i < parametros.length; i += 2) {
+                query.setParameter((String) parametros[i], parametros[i + 1]);
+            }
+            return query.getResultList().stream()
+                    .map(ReservaDAOImpl::aDTO)
+                    .toList();
+        }
+    }
+
+    private static ReservaDTO aDTO(Object[] fila) {
+        return ReservaDTO.builder()
+                .id((Long) fila[0])
+                .idHuesped((Long) fila[1])
+                .nombreHuesped((String) fila[2])
+                .apellidoHuesped((String) fila[3])
+                .telefonoHuesped((String) fila[4])
+                .numeroHabitacion((Integer) fila[5])
+                .fechaInicio((LocalDate) fila[6])
+                .fechaFin((LocalDate) fila[7])
+                .cantHuespedes((Integer) fila[8])
+                .descuento((Double) fila[9])
+                .tieneEstadia(fila[10] != null)
+                .build();
+    }
+
     @Override
     public List<Reserva> obtenerPorHuesped(Long idHuesped) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT r FROM Reserva r " +
                                     "LEFT JOIN FETCH r.habitacion " +
@@ -166,7 +507,7 @@ public class ReservaDAOImpl implements ReservaDAO {
 
     @Override
     public List<Reserva> obtenerPorFechas(LocalDate fechaInicio, LocalDate fechaFin) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT r FROM Reserva r " +
                                     "LEFT JOIN FETCH r.habitacion " +
@@ -183,7 +524,7 @@ public class ReservaDAOImpl implements ReservaDAO {
 
     @Override
     public List<Reserva> obtenerPorHabitacion(Integer numeroHabitacion) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             return session.createQuery(
                             "SELECT DISTINCT r FROM Reserva r " +
                                     "LEFT JOIN FETCH r.huesped " +
@@ -198,7 +539,7 @@ public class ReservaDAOImpl implements ReservaDAO {
     @Override
     public void actualizar(Reserva reserva) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.merge(reserva);
             transaction.commit();
@@ -213,9 +554,10 @@ public class ReservaDAOImpl implements ReservaDAO {
     @Override
     public void eliminar(Long id) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
 
+            CambioEstadoHabitacion cambio = null;
             Reserva reserva = session.get(Reserva.class, id);
             if (reserva != null) {
                 // Al eliminar reserva, liberamos el historial de estado asociado a "hoy" si corresponde
@@ -233,12 +575,19 @@ public class ReservaDAOImpl implements ReservaDAO {
 
                     habitacion.getEstados().add(nuevoEstado);
                     session.persist(nuevoEstado);
+                    HabitacionDAOImpl.actualizarEstadoActual(session, habitacion);
+
+                    cambio = new CambioEstadoHabitacion(
+                            habitacion.getNumero(), nuevoEstado.getFechaDesde(), null, EstadoHab.DISPONIBLE);
                 }
 
                 session.remove(reserva);
             }
 
             transaction.commit();
+            if (cambio != null) {
+                NotificadorEstadosHabitacion.publicar(cambio);
+            }
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
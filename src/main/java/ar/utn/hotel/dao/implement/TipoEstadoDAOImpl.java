@@ -3,20 +3,25 @@ package ar.utn.hotel.dao.implement;
 import ar.utn.hotel.dao.interfaces.TipoEstadoDAO;
 import ar.utn.hotel.model.TipoEstado;
 import utils.HibernateUtil;
+import utils.UnidadDeTrabajo;
 import enums.EstadoHab;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import java.util.List;
 
+/**
+ * Las lecturas se sirven desde CatalogoCache; las escrituras van a la base e invalidan la caché
+ */
 public class TipoEstadoDAOImpl implements TipoEstadoDAO {
 
     @Override
     public TipoEstado guardar(TipoEstado tipoEstado) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.persist(tipoEstado);
             transaction.commit();
+            UnidadDeTrabajo.alConfirmar(CatalogoCache.getInstancia()::invalidar);
             return tipoEstado;
         } catch (Exception e) {
             if (transaction != null) {
@@ -28,39 +33,27 @@ public class TipoEstadoDAOImpl implements TipoEstadoDAO {
 
     @Override
     public TipoEstado buscarPorId(Integer id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.get(TipoEstado.class, id);
-        }
+        return CatalogoCache.getInstancia().tipoEstadoPorId(id);
     }
 
     @Override
     public TipoEstado buscarPorEstado(EstadoHab estado) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                            "FROM TipoEstado te WHERE te.estado = :estado",
-                            TipoEstado.class)
-                    .setParameter("estado", estado)
-                    .uniqueResult();
-        }
+        return CatalogoCache.getInstancia().tipoEstado(estado);
     }
 
     @Override
     public List<TipoEstado> listarTodos() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                            "FROM TipoEstado te ORDER BY te.estado",
-                            TipoEstado.class)
-                    .getResultList();
-        }
+        return CatalogoCache.getInstancia().tiposEstado();
     }
 
     @Override
     public void actualizar(TipoEstado tipoEstado) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.merge(tipoEstado);
             transaction.commit();
+            UnidadDeTrabajo.alConfirmar(CatalogoCache.getInstancia()::invalidar);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -72,13 +65,14 @@ public class TipoEstadoDAOImpl implements TipoEstadoDAO {
     @Override
     public void eliminar(Integer id) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             TipoEstado tipoEstado = session.get(TipoEstado.class, id);
             if (tipoEstado != null) {
                 session.remove(tipoEstado);
             }
             transaction.commit();
+            UnidadDeTrabajo.alConfirmar(CatalogoCache.getInstancia()::invalidar);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -89,13 +83,6 @@ public class TipoEstadoDAOImpl implements TipoEstadoDAO {
 
     @Override
     public boolean existeEstado(EstadoHab estado) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Long count = session.createQuery(
-                            "SELECT COUNT(te) FROM TipoEstado te WHERE te.estado = :estado",
-                            Long.class)
-                    .setParameter("estado", estado)
-                    .uniqueResult();
-            return count != null && count > 0;
-        }
+        return CatalogoCache.getInstancia().tipoEstado(estado) != null;
     }
 }
\ No newline at end of file
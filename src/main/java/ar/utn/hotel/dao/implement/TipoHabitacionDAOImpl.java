@@ -3,19 +3,25 @@ package ar.utn.hotel.dao.implement;
 import ar.utn.hotel.dao.interfaces.TipoHabitacionDAO;
 import ar.utn.hotel.model.TipoHabitacion;
 import utils.HibernateUtil;
+import utils.UnidadDeTrabajo;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Las lecturas se sirven desde CatalogoCache; las escrituras van a la base e invalidan la caché
+ */
 public class TipoHabitacionDAOImpl implements TipoHabitacionDAO {
 
     @Override
     public TipoHabitacion guardar(TipoHabitacion tipo) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.persist(tipo);
             transaction.commit();
+            UnidadDeTrabajo.alConfirmar(CatalogoCache.getInstancia()::invalidar);
             return tipo;
         } catch (Exception e) {
             if (transaction != null) {
@@ -27,37 +33,27 @@ public class TipoHabitacionDAOImpl implements TipoHabitacionDAO {
 
     @Override
     public TipoHabitacion buscarPorId(Integer id) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.get(TipoHabitacion.class, id);
-        }
+        return CatalogoCache.getInstancia().tipoHabitacionPorId(id);
     }
 
     @Override
     public TipoHabitacion buscarPorNombre(String nombre) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                            "FROM TipoHabitacion t WHERE t.nombre = :nombre", TipoHabitacion.class)
-                    .setParameter("nombre", nombre)
-                    .uniqueResult();
-        }
+        return CatalogoCache.getInstancia().tipoHabitacion(nombre);
     }
 
     @Override
     public List<TipoHabitacion> listarTodos() {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                            "FROM TipoHabitacion t ORDER BY t.nombre", TipoHabitacion.class)
-                    .getResultList();
-        }
+        return CatalogoCache.getInstancia().tiposHabitacion();
     }
 
     @Override
     public void actualizar(TipoHabitacion tipo) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             session.merge(tipo);
             transaction.commit();
+            UnidadDeTrabajo.alConfirmar(CatalogoCache.getInstancia()::invalidar);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -69,13 +65,14 @@ public class TipoHabitacionDAOImpl implements TipoHabitacionDAO {
     @Override
     public void eliminar(Integer id) {
         Transaction transaction = null;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.abrirSesion()) {
             transaction = session.beginTransaction();
             TipoHabitacion tipo = session.get(TipoHabitacion.class, id);
             if (tipo != null) {
                 session.remove(tipo);
             }
             transaction.commit();
+            UnidadDeTrabajo.alConfirmar(CatalogoCache.getInstancia()::invalidar);
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
@@ -86,35 +83,22 @@ public class TipoHabitacionDAOImpl implements TipoHabitacionDAO {
 
     @Override
     public boolean existeNombre(String nombre) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Long count = session.createQuery(
-                            "SELECT COUNT(t) FROM TipoHabitacion t WHERE t.nombre = :nombre", Long.class)
-                    .setParameter("nombre", nombre)
-                    .uniqueResult();
-            return count != null && count > 0;
-        }
+        return CatalogoCache.getInstancia().tipoHabitacion(nombre) != null;
     }
 
     @Override
     public List<TipoHabitacion> buscarPorCapacidad(Integer capacidad) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                            "FROM TipoHabitacion t WHERE t.capacidad >= :capacidad ORDER BY t.capacidad",
-                            TipoHabitacion.class)
-                    .setParameter("capacidad", capacidad)
-                    .getResultList();
-        }
+        return CatalogoCache.getInstancia().tiposHabitacion().stream()
+                .filter(t -> t.getCapacidad() >= capacidad)
+                .sorted(Comparator.comparing(TipoHabitacion::getCapacidad))
+                .toList();
     }
 
     @Override
     public List<TipoHabitacion> buscarPorRangoPrecio(Double precioMin, Double precioMax) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.createQuery(
-                            "FROM TipoHabitacion t WHERE t.costoNoche BETWEEN :min AND :max ORDER BY t.costoNoche",
-                            TipoHabitacion.class)
-                    .setParameter("min", precioMin)
-                    .setParameter("max", precioMax)
-                    .getResultList();
-        }
+        return CatalogoCache.getInstancia().tiposHabitacion().stream()
+                .filter(t -> t.getCostoNoche() >= precioMin && t.getCostoNoche() <= precioMax)
+                .sorted(Comparator.comparing(TipoHabitacion::getCostoNoche))
+                .toList();
     }
 }
\ No newline at end of file
@@ -1,18 +1,31 @@
 package ar.utn.hotel.dao.interfaces;
 
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.EstadiaDTO;
+import ar.utn.hotel.dto.Pagina;
 import ar.utn.hotel.model.Estadia;
 import ar.utn.hotel.model.Reserva;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface EstadiaDAO {
     Estadia guardar(Estadia estadia);
     Estadia buscarPorId(Integer id);
     Estadia buscarPorReserva(Long idReserva);
     List<Estadia> listarTodas();
+    long recorrerTodas(Consumer<EstadiaDTO> consumidor);
+    Pagina<Estadia> obtenerPagina(CursorPagina desde, int tamanio);
     List<Estadia> listarActivas();
     List<Estadia> listarPorHabitacion(Integer numeroHabitacion);
     List<Estadia> listarPorFechas(LocalDate fechaInicio, LocalDate fechaFin);
+
+    // Lecturas proyectadas directamente a DTO (sin cargar entidades)
+    EstadiaDTO buscarDTOPorReserva(Long idReserva);
+    List<EstadiaDTO> listarDTOsActivas();
+    List<EstadiaDTO> listarDTOsPorHabitacion(Integer numeroHabitacion);
+    List<EstadiaDTO> listarDTOsPorFechas(LocalDate fechaInicio, LocalDate fechaFin);
+
     void actualizar(Estadia estadia);
     void eliminar(Integer id);
     Estadia crearDesdeReserva(Reserva reserva);
@@ -1,5 +1,6 @@
 package ar.utn.hotel.dao.interfaces;
 
+import ar.utn.hotel.dto.HabitacionDTO;
 import ar.utn.hotel.model.TipoHabitacion;
 import enums.EstadoHab;
 import ar.utn.hotel.model.Habitacion;
@@ -15,6 +16,10 @@ public interface HabitacionDAO {
 
     List<Habitacion> listarTodas();
 
+    List<Integer> listarNumeros();
+
+    List<Habitacion> listarConTipo();
+
     List<Habitacion> listarPorRangoDeFechas(LocalDate fechaInicio, LocalDate fechaFin);
 
     List<Habitacion> buscarPorTipo(TipoHabitacion tipo);
@@ -23,6 +28,17 @@ public interface HabitacionDAO {
 
     List<Habitacion> buscarDisponibles();
 
+    // Lecturas proyectadas directamente a DTO (sin cargar entidades)
+    HabitacionDTO obtenerDTO(Integer numero);
+
+    List<HabitacionDTO> listarDTOs();
+
+    List<HabitacionDTO> listarDTOsPorTipo(Integer idTipoHabitacion);
+
+    List<HabitacionDTO> listarDTOsPorEstado(EstadoHab estado);
+
+    List<HabitacionDTO> listarDTOsSinReservasEntre(LocalDate fechaInicio, LocalDate fechaFin);
+
     void actualizar(Habitacion habitacion);
 
     void eliminar(Integer id);
@@ -31,6 +47,10 @@ public interface HabitacionDAO {
 
     void ocuparHabitaciones(Set<Integer> numerosHabitaciones, LocalDate fechaDesde, LocalDate fechaHasta);
 
+    void sincronizarEstadoActual(Integer numero);
+
+    int sincronizarEstadosActuales();
+
     boolean existeNumero(Integer numero);
 
     Long contarPorTipo(TipoHabitacion tipo);
@@ -1,16 +1,23 @@
 package ar.utn.hotel.dao.interfaces;
 
+import ar.utn.hotel.dto.CursorPagina;
 import ar.utn.hotel.dto.HuespedDTO;
+import ar.utn.hotel.dto.Pagina;
 import ar.utn.hotel.model.Huesped;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface HuespedDAO {
     Huesped guardar(Huesped huesped);
     Huesped obtenerPorId(Long id);
+    HuespedDTO obtenerDTOPorId(Long id);
     List<Huesped> obtenerTodos();
+    long recorrerTodos(Consumer<HuespedDTO> consumidor);
+    Pagina<HuespedDTO> obtenerPagina(CursorPagina desde, int tamanio);
     void actualizar(Huesped huesped);
     void eliminar(Long id);
     boolean existePorDocumento(String numeroDocumento, String tipoDocumento);
     List<Huesped> buscarHuesped(HuespedDTO dto);
+    List<HuespedDTO> buscarHuespedDTO(HuespedDTO dto);
 }
\ No newline at end of file
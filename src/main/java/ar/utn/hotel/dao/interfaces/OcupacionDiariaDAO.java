@@ -0,0 +1,17 @@
+package ar.utn.hotel.dao.interfaces;
+
+import ar.utn.hotel.dto.OcupacionDiaDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OcupacionDiariaDAO {
+
+    // Mantenimiento de la foto diaria (rangos cerrados: desde y hasta son obligatorios)
+    void recalcular(Integer numeroHabitacion, LocalDate desde, LocalDate hasta);
+    void regenerar(LocalDate desde, LocalDate hasta);
+
+    // Reportes
+    List<OcupacionDiaDTO> contarPorDia(LocalDate desde, LocalDate hasta);
+    List<OcupacionDiaDTO> contarPorDiaYTipo(LocalDate desde, LocalDate hasta);
+}
@@ -1,21 +1,42 @@
 package ar.utn.hotel.dao.interfaces;
 
+import ar.utn.hotel.dto.ConflictoReservaDTO;
 import ar.utn.hotel.dto.CrearReservaDTO;
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.Pagina;
+import ar.utn.hotel.dto.ReservaDTO;
 import ar.utn.hotel.model.Reserva;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ReservaDAO {
 
     // Crear reserva desde DTO
     Reserva crearReserva(CrearReservaDTO dto);
 
+    // Alta de un grupo ya verificado con buscarConflictos, sin volver a consultar cada reserva
+    List<Reserva> crearReservasVerificadas(List<CrearReservaDTO> dtos);
+
+    // Verificación de disponibilidad de un lote de pares (habitación, rango) en una sola consulta
+    List<ConflictoReservaDTO> buscarConflictos(List<CrearReservaDTO> solicitudes);
+
     // CRUD básico
     Reserva obtenerPorId(Long id);
     List<Reserva> obtenerTodas();
+    long recorrerTodas(Consumer<ReservaDTO> consumidor);
+    Pagina<Reserva> obtenerPagina(CursorPagina desde, int tamanio);
     List<Reserva> obtenerPorHuesped(Long idHuesped);
     List<Reserva> obtenerPorFechas(LocalDate fechaInicio, LocalDate fechaFin);
     List<Reserva> obtenerPorHabitacion(Integer numeroHabitacion);
+
+    // Lecturas proyectadas directamente a DTO (sin cargar entidades)
+    ReservaDTO obtenerDTOPorId(Long id);
+    List<ReservaDTO> listarDTOs();
+    List<ReservaDTO> listarDTOsPorHuesped(Long idHuesped);
+    List<ReservaDTO> listarDTOsPorFechas(LocalDate fechaInicio, LocalDate fechaFin);
+    List<ReservaDTO> listarDTOsPorHabitacion(Integer numeroHabitacion);
+
     void actualizar(Reserva reserva);
     void eliminar(Long id);
 }
\ No newline at end of file
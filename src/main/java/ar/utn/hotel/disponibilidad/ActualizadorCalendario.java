@@ -0,0 +1,117 @@
+package ar.utn.hotel.disponibilidad;
+
+import ar.utn.hotel.dao.implement.EstadoHabitacionDAOImpl;
+import ar.utn.hotel.dao.interfaces.EstadoHabitacionDAO;
+import ar.utn.hotel.eventos.CambioEstadoHabitacion;
+import ar.utn.hotel.eventos.NotificadorEstadosHabitacion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Mantiene el calendario de disponibilidad al día escuchando los cambios de estado.
+ * Ante cada cambio lee sólo los intervalos de esa habitación que tocan el rango
+ * afectado y recalcula esos días, sin reconstruir el calendario completo.
+ *
+ * Una reconstrucción lee la base antes de publicar el calendario nuevo: un cambio
+ * confirmado en el medio no estaría en lo leído y, si se aplicara antes, quedaría
+ * pisado. Por eso los cambios que llegan durante una reconstrucción se guardan y se
+ * aplican cuando termina.
+ */
+public class ActualizadorCalendario implements Consumer<CambioEstadoHabitacion> {
+
+    private static final Object RECONSTRUCCION = new Object();
+
+    private static ActualizadorCalendario instancia;
+
+    private final EstadoHabitacionDAO estadoHabitacionDAO;
+    private final List<CambioEstadoHabitacion> diferidos = new ArrayList<>();
+    private boolean reconstruyendo;
+
+    private ActualizadorCalendario(EstadoHabitacionDAO estadoHabitacionDAO) {
+        this.estadoHabitacionDAO = estadoHabitacionDAO;
+    }
+
+    /**
+     * Suscribe el actualizador al notificador (una única vez por proceso)
+     */
+    public static synchronized void registrar() {
+        if (instancia == null) {
+            instancia = new ActualizadorCalendario(new EstadoHabitacionDAOImpl());
+            NotificadorEstadosHabitacion.suscribir(instancia);
+        }
+    }
+
+    /**
+     * Ejecuta una reconstrucción (total o de los días nuevos de la ventana) difiriendo
+     * los cambios que lleguen mientras tanto; al terminar se aplican sobre el resultado.
+     * Las reconstrucciones se ejecutan de a una.
+     */
+    public static void reconstruir(Runnable reconstruccion) {
+        registrar();
+        synchronized (RECONSTRUCCION) {
+            instancia.diferir();
+            try {
+                reconstruccion.run();
+            } finally {
+                instancia.aplicarDiferidos();
+            }
+        }
+    }
+
+    @Override
+    public void accept(CambioEstadoHabitacion cambio) {
+        synchronized (this) {
+            if (reconstruyendo) {
+                diferidos.add(cambio);
+                return;
+            }
+        }
+        aplicar(cambio);
+    }
+
+    private synchronized void diferir() {
+        reconstruyendo = true;
+    }
+
+    private void aplicarDiferidos() {
+        List<CambioEstadoHabitacion> pendientes;
+        synchronized (this) {
+            reconstruyendo = false;
+            pendientes = new ArrayList<>(diferidos);
+            diferidos.clear();
+        }
+
+        for (CambioEstadoHabitacion cambio : pendientes) {
+            try {
+                aplicar(cambio);
+            } catch (Exception e) {
+                // Sin poder releer ese rango el calendario ya no es confiable
+                CalendarioDisponibilidad.getInstancia().invalidar();
+                System.err.println("Error al aplicar " + cambio + " al calendario: " + e.getMessage());
+            }
+        }
+    }
+
+    private void aplicar(CambioEstadoHabitacion cambio) {
+        CalendarioDisponibilidad calendario = CalendarioDisponibilidad.getInstancia();
+        if (!calendario.isConstruido()) {
+            return;
+        }
+
+        // Habitación nueva o eliminada: cambió el conjunto de habitaciones
+        if (cambio.getEstado() == null || !calendario.contieneHabitacion(cambio.getNumero())) {
+            calendario.invalidar();
+            return;
+        }
+
+        calendario.recalcular(
+                cambio.getNumero(),
+                cambio.getDesde(),
+                cambio.getHasta(),
+                estadoHabitacionDAO.listarPorHabitacionEnRango(
+                        cambio.getNumero(), cambio.getDesde(), cambio.getHasta())
+        );
+    }
+}
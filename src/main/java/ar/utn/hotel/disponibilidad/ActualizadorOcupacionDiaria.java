@@ -0,0 +1,91 @@
+package ar.utn.hotel.disponibilidad;
+
+import ar.utn.hotel.dao.implement.OcupacionDiariaDAOImpl;
+import ar.utn.hotel.dao.interfaces.OcupacionDiariaDAO;
+import ar.utn.hotel.eventos.CambioEstadoHabitacion;
+import ar.utn.hotel.eventos.NotificadorEstadosHabitacion;
+import utils.UnidadDeTrabajo;
+
+import java.time.LocalDate;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Mantiene la tabla ocupacion_diaria al día: ante cada cambio de estado recalcula
+ * en la base solo los días afectados de esa habitación.
+ *
+ * Dentro de una unidad de trabajo el recálculo va en la misma transacción que el
+ * cambio de estado, así las dos tablas se confirman o se deshacen juntas. Un cambio
+ * publicado sin unidad ya está confirmado cuando llega acá: si su recálculo falla,
+ * el rango queda pendiente y se reintenta con el próximo cambio.
+ */
+public class ActualizadorOcupacionDiaria implements Consumer<CambioEstadoHabitacion> {
+
+    private static boolean registrado;
+
+    private final OcupacionDiariaDAO ocupacionDiariaDAO;
+    private final Queue<CambioEstadoHabitacion> pendientes = new ConcurrentLinkedQueue<>();
+
+    private ActualizadorOcupacionDiaria(OcupacionDiariaDAO ocupacionDiariaDAO) {
+        this.ocupacionDiariaDAO = ocupacionDiariaDAO;
+    }
+
+    /**
+     * Suscribe el actualizador al notificador (una única vez por proceso)
+     */
+    public static synchronized void registrar() {
+        if (!registrado) {
+            NotificadorEstadosHabitacion.suscribirEnTransaccion(
+                    new ActualizadorOcupacionDiaria(new OcupacionDiariaDAOImpl()));
+            registrado = true;
+        }
+    }
+
+    @Override
+    public void accept(CambioEstadoHabitacion cambio) {
+        if (UnidadDeTrabajo.activa()) {
+            // Un error acá deshace también el cambio de estado
+            recalcular(cambio);
+            if (!pendientes.isEmpty()) {
+                UnidadDeTrabajo.alConfirmar(this::reintentarPendientes);
+            }
+            return;
+        }
+
+        reintentarPendientes();
+        intentar(cambio);
+    }
+
+    /**
+     * Vuelve a recalcular los rangos que fallaron; los que fallan otra vez siguen pendientes
+     */
+    public void reintentarPendientes() {
+        for (int i = pendientes.size(); i > 0; i--) {
+            CambioEstadoHabitacion cambio = pendientes.poll();
+            if (cambio == null) {
+                return;
+            }
+            intentar(cambio);
+        }
+    }
+
+    private void intentar(CambioEstadoHabitacion cambio) {
+        try {
+            recalcular(cambio);
+        } catch (Exception e) {
+            pendientes.add(cambio);
+            System.err.println("Error al recalcular ocupación diaria de " + cambio
+                    + " (queda pendiente): " + e.getMessage());
+        }
+    }
+
+    private void recalcular(CambioEstadoHabitacion cambio) {
+        // Un estado abierto no tiene fin: se recalcula hasta el final de la ventana del calendario.
+        // Si la habitación fue eliminada sus estados ya no existen y el recálculo borra sus filas.
+        LocalDate hasta = cambio.getHasta() != null
+                ? cambio.getHasta()
+                : LocalDate.now().plusDays(CalendarioDisponibilidad.HORIZONTE_DIAS - 1);
+        ocupacionDiariaDAO.recalcular(cambio.getNumero(), cambio.getDesde(), hasta);
+    }
+}
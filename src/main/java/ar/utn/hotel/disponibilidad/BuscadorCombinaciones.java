@@ -0,0 +1,218 @@
+package ar.utn.hotel.disponibilidad;
+
+import ar.utn.hotel.model.Habitacion;
+import enums.CriterioCombinacion;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Busca combinaciones de habitaciones libres que alcancen para un grupo de huéspedes.
+ * Las habitaciones se agrupan en clases de igual capacidad y costo, y la búsqueda
+ * decide cuántas tomar de cada clase (no qué habitación puntual), lo que mantiene
+ * el espacio de búsqueda chico aun con cientos de habitaciones. Nunca toma de una
+ * clase más habitaciones de las necesarias para cubrir lo que falta.
+ *
+ * La exploración está acotada: si se corta antes de recorrer todo, el resultado lo
+ * indica con isTruncado() para que no se tome como la lista completa.
+ */
+public class BuscadorCombinaciones {
+
+    private static final int MAX_COMBINACIONES_EXPLORADAS = 50_000;
+
+    private final List<Habitacion> libres;
+
+    /**
+     * @param libres habitaciones libres durante todo el rango, con su tipo cargado
+     */
+    public BuscadorCombinaciones(List<Habitacion> libres) {
+        this.libres = libres;
+    }
+
+    /**
+     * Devuelve hasta maxResultados combinaciones ordenadas según las preferencias,
+     * en orden de prioridad. Sin preferencias se ordena por menos habitaciones.
+     */
+    public Resultado buscar(int huespedes, long noches,
+                            List<CriterioCombinacion> preferencias, int maxResultados) {
+        List<CriterioCombinacion> criterios = preferencias == null || preferencias.isEmpty()
+                ? List.of(CriterioCombinacion.MENOS_HABITACIONES)
+                : preferencias;
+
+        Map<Set<Integer>, Combinacion> encontradas = new LinkedHashMap<>();
+        boolean truncado = false;
+
+        // Con MISMO_PISO se busca además piso por piso, para que las opciones
+        // de un solo piso no queden afuera por el límite de exploración
+        if (criterios.contains(CriterioCombinacion.MISMO_PISO)) {
+            Map<Integer, List<Habitacion>> porPiso = new TreeMap<>();
+            for (Habitacion habitacion : libres) {
+                porPiso.computeIfAbsent(habitacion.getPiso(), k -> new ArrayList<>()).add(habitacion);
+            }
+            for (List<Habitacion> delPiso : porPiso.values()) {
+                truncado |= new Busqueda(delPiso, huespedes, noches).ejecutar(encontradas);
+            }
+        }
+        truncado |= new Busqueda(libres, huespedes, noches).ejecutar(encontradas);
+
+        List<Combinacion> resultado = new ArrayList<>(encontradas.values());
+        resultado.sort(comparador(criterios));
+        if (resultado.size() > maxResultados) {
+            resultado = new ArrayList<>(resultado.subList(0, maxResultados));
+        }
+        return new Resultado(resultado, truncado);
+    }
+
+    private static Comparator<Combinacion> comparador(List<CriterioCombinacion> criterios) {
+        Comparator<Combinacion> comparador = null;
+        for (CriterioCombinacion criterio : criterios) {
+            Comparator<Combinacion> siguiente = switch (criterio) {
+                case MENOS_HABITACIONES -> Comparator.comparingInt(c -> c.getHabitaciones().size());
+                case MENOR_COSTO -> Comparator.comparingDouble(Combinacion::getCostoTotal);
+                case MISMO_PISO -> Comparator.comparingInt(Combinacion::getCantidadPisos);
+            };
+            comparador = comparador == null ? siguiente : comparador.thenComparing(siguiente);
+        }
+        // Desempate: menos camas sobrantes y luego menor costo
+        return comparador
+                .thenComparingInt(Combinacion::getCapacidadTotal)
+                .thenComparingDouble(Combinacion::getCostoTotal);
+    }
+
+    /**
+     * Capacidad y costo por noche que comparten las habitaciones de una clase
+     */
+    private record Clase(int capacidad, double costoNoche) {
+        // Capacidad descendente y costo ascendente: las clases grandes y baratas se prueban primero
+        static final Comparator<Clase> ORDEN = Comparator.comparingInt(Clase::capacidad).reversed()
+                .thenComparingDouble(Clase::costoNoche);
+    }
+
+    /**
+     * Búsqueda en profundidad sobre las clases de un conjunto de habitaciones
+     */
+    private static final class Busqueda {
+        private final List<List<Habitacion>> clases = new ArrayList<>();
+        private final int[] capacidad;
+        private final int[] capacidadRestante; // capacidad total de las clases i..n-1
+        private final int[] tomadas;
+        private final int huespedes;
+        private final long noches;
+        private int exploradas;
+        private boolean truncada;
+
+        Busqueda(List<Habitacion> habitaciones, int huespedes, long noches) {
+            this.huespedes = huespedes;
+            this.noches = noches;
+
+            Map<Clase, List<Habitacion>> porClase = new TreeMap<>(Clase.ORDEN);
+            for (Habitacion habitacion : habitaciones) {
+                Integer cap = habitacion.getTipo() != null ? habitacion.getTipo().getCapacidad() : null;
+                if (cap == null || cap <= 0) {
+                    // No aporta camas a ninguna combinación
+                    continue;
+                }
+                Clase clave = new Clase(cap, habitacion.getCostoNoche() != null ? habitacion.getCostoNoche() : 0.0);
+                porClase.computeIfAbsent(clave, k -> new ArrayList<>()).add(habitacion);
+            }
+            for (List<Habitacion> clase : porClase.values()) {
+                clase.sort(Comparator.comparing(Habitacion::getNumero));
+                clases.add(clase);
+            }
+
+            int n = clases.size();
+            capacidad = new int[n];
+            capacidadRestante = new int[n + 1];
+            tomadas = new int[n];
+            for (int i = n - 1; i >= 0; i--) {
+                capacidad[i] = clases.get(i).get(0).getTipo().getCapacidad();
+                capacidadRestante[i] = capacidadRestante[i + 1] + capacidad[i] * clases.get(i).size();
+            }
+        }
+
+        /**
+         * @return true si se alcanzó el límite de exploración antes de recorrer todo
+         */
+        boolean ejecutar(Map<Set<Integer>, Combinacion> encontradas) {
+            explorar(0, huespedes, encontradas);
+            return truncada;
+        }
+
+        private void explorar(int clase, int faltan, Map<Set<Integer>, Combinacion> encontradas) {
+            if (faltan <= 0) {
+                registrar(encontradas);
+                return;
+            }
+            if (clase == clases.size() || capacidadRestante[clase] < faltan) {
+                return;
+            }
+            if (exploradas >= MAX_COMBINACIONES_EXPLORADAS) {
+                truncada = true;
+                return;
+            }
+            exploradas++;
+
+            int necesarias = (faltan + capacidad[clase] - 1) / capacidad[clase];
+            int maximo = Math.min(clases.get(clase).size(), necesarias);
+            for (int k = maximo; k >= 0; k--) {
+                tomadas[clase] = k;
+                explorar(clase + 1, faltan - k * capacidad[clase], encontradas);
+            }
+            tomadas[clase] = 0;
+        }
+
+        private void registrar(Map<Set<Integer>, Combinacion> encontradas) {
+            List<Habitacion> elegidas = new ArrayList<>();
+            for (int i = 0; i < clases.size(); i++) {
+                elegidas.addAll(clases.get(i).subList(0, tomadas[i]));
+            }
+
+            Set<Integer> clave = new HashSet<>();
+            int capacidadTotal = 0;
+            double costoNoche = 0;
+            Set<Integer> pisos = new HashSet<>();
+            for (Habitacion habitacion : elegidas) {
+                clave.add(habitacion.getNumero());
+                capacidadTotal += habitacion.getTipo().getCapacidad();
+                costoNoche += habitacion.getCostoNoche();
+                pisos.add(habitacion.getPiso());
+            }
+
+            encontradas.putIfAbsent(clave,
+                    new Combinacion(elegidas, capacidadTotal, costoNoche * noches, pisos.size()));
+        }
+    }
+
+    @Getter
+    public static final class Resultado {
+        private final List<Combinacion> combinaciones;
+        private final boolean truncado;
+
+        Resultado(List<Combinacion> combinaciones, boolean truncado) {
+            this.combinaciones = combinaciones;
+            this.truncado = truncado;
+        }
+    }
+
+    @Getter
+    public static final class Combinacion {
+        private final List<Habitacion> habitaciones;
+        private final int capacidadTotal;
+        private final double costoTotal;
+        private final int cantidadPisos;
+
+        Combinacion(List<Habitacion> habitaciones, int capacidadTotal, double costoTotal, int cantidadPisos) {
+            this.habitaciones = habitaciones;
+            this.capacidadTotal = capacidadTotal;
+            this.costoTotal = costoTotal;
+            this.cantidadPisos = cantidadPisos;
+        }
+    }
+}
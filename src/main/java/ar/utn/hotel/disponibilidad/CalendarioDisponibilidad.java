@@ -0,0 +1,186 @@
+package ar.utn.hotel.disponibilidad;
+
+import ar.utn.hotel.model.EstadoHabitacion;
+import enums.EstadoHab;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Calendario de disponibilidad compartido por toda la aplicación.
+ * Guarda, para cada día de la ventana [origen, origen + HORIZONTE_DIAS), un BitSet
+ * con las habitaciones no disponibles ese día (un bit por habitación). Saber qué
+ * habitaciones están libres en un rango se reduce a un OR de los días del rango
+ * seguido del complemento, sin tocar la base de datos.
+ *
+ * La ventana empieza el día en que se construyó. Cuando cambia la fecha hay que
+ * correrla con avanzarOrigen (sólo se calculan los días nuevos del final) para que
+ * el día 0 no quede en el pasado.
+ */
+public class CalendarioDisponibilidad {
+
+    public static final int HORIZONTE_DIAS = 730;
+
+    private static final CalendarioDisponibilidad INSTANCIA = new CalendarioDisponibilidad();
+
+    private int[] numerosHabitaciones = new int[0];
+    private BitSet[] ocupadasPorDia = new BitSet[0];
+    private long diaOrigen;
+    private boolean construido;
+
+    private CalendarioDisponibilidad() {
+    }
+
+    public static CalendarioDisponibilidad getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Reconstruye el calendario completo a partir de las habitaciones existentes y
+     * de los estados que se superponen con la ventana que comienza en el origen.
+     * Cada día toma el mismo estado que muestra la grilla de estados de habitaciones.
+     */
+    public synchronized void reconstruir(List<Integer> numeros, List<EstadoHabitacion> estados, LocalDate origen) {
+        numerosHabitaciones = numeros.stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        diaOrigen = origen.toEpochDay();
+        ocupadasPorDia = new BitSet[HORIZONTE_DIAS];
+        for (int dia = 0; dia < HORIZONTE_DIAS; dia++) {
+            ocupadasPorDia[dia] = new BitSet(numerosHabitaciones.length);
+        }
+
+        IndiceEstadosHabitacion indice = IndiceEstadosHabitacion.construir(estados);
+        for (int fila = 0; fila < numerosHabitaciones.length; fila++) {
+            marcarDias(indice, fila, 0, HORIZONTE_DIAS - 1);
+        }
+        construido = true;
+    }
+
+    public synchronized boolean isConstruido() {
+        return construido;
+    }
+
+    public synchronized LocalDate getOrigen() {
+        return LocalDate.ofEpochDay(diaOrigen);
+    }
+
+    /**
+     * Corre la ventana para que empiece en el nuevo origen. Los días que siguen dentro
+     * de la ventana se conservan; los que se agregan al final se marcan con los estados
+     * recibidos, que deben cubrir [origen anterior + HORIZONTE_DIAS, nuevo origen + HORIZONTE_DIAS).
+     * Si el salto es mayor que la ventana, el calendario queda invalidado.
+     */
+    public synchronized void avanzarOrigen(LocalDate nuevoOrigen, List<EstadoHabitacion> estadosNuevos) {
+        long salto = nuevoOrigen.toEpochDay() - diaOrigen;
+        if (!construido || salto <= 0) {
+            return;
+        }
+        if (salto >= HORIZONTE_DIAS) {
+            invalidar();
+            return;
+        }
+
+        int conservados = HORIZONTE_DIAS - (int) salto;
+        System.arraycopy(ocupadasPorDia, (int) salto, ocupadasPorDia, 0, conservados);
+        for (int dia = conservados; dia < HORIZONTE_DIAS; dia++) {
+            ocupadasPorDia[dia] = new BitSet(numerosHabitaciones.length);
+        }
+        diaOrigen = nuevoOrigen.toEpochDay();
+
+        IndiceEstadosHabitacion indice = IndiceEstadosHabitacion.construir(estadosNuevos);
+        for (int fila = 0; fila < numerosHabitaciones.length; fila++) {
+            marcarDias(indice, fila, conservados, HORIZONTE_DIAS - 1);
+        }
+    }
+
+    /**
+     * Indica si el rango completo cae dentro de la ventana del calendario
+     */
+    public synchronized boolean cubre(LocalDate desde, LocalDate hasta) {
+        return construido
+                && desde.toEpochDay() >= diaOrigen
+                && hasta.toEpochDay() < diaOrigen + HORIZONTE_DIAS;
+    }
+
+    /**
+     * Números de las habitaciones disponibles durante todo el rango [desde, hasta].
+     * El rango debe estar cubierto por el calendario (ver {@link #cubre}).
+     */
+    public synchronized List<Integer> habitacionesLibres(LocalDate desde, LocalDate hasta) {
+        if (!cubre(desde, hasta)) {
+            throw new IllegalArgumentException("El rango " + desde + " - " + hasta +
+                    " está fuera de la ventana del calendario de disponibilidad");
+        }
+
+        int primerDia = (int) (desde.toEpochDay() - diaOrigen);
+        int ultimoDia = (int) (hasta.toEpochDay() - diaOrigen);
+
+        BitSet ocupadas = new BitSet(numerosHabitaciones.length);
+        for (int dia = primerDia; dia <= ultimoDia; dia++) {
+            ocupadas.or(ocupadasPorDia[dia]);
+        }
+        ocupadas.flip(0, numerosHabitaciones.length);
+
+        List<Integer> libres = new ArrayList<>(ocupadas.cardinality());
+        for (int fila = ocupadas.nextSetBit(0); fila >= 0; fila = ocupadas.nextSetBit(fila + 1)) {
+            libres.add(numerosHabitaciones[fila]);
+        }
+        return libres;
+    }
+
+    /**
+     * Recalcula solo los días [desde, hasta] de una habitación a partir de sus estados.
+     * Un hasta nulo recalcula hasta el final de la ventana.
+     */
+    public synchronized void recalcular(Integer numero, LocalDate desde, LocalDate hasta,
+                                        List<EstadoHabitacion> estadosHabitacion) {
+        int fila = indiceHabitacion(numero);
+        if (!construido || fila < 0) {
+            return;
+        }
+
+        int primerDia = (int) Math.max(0, desde.toEpochDay() - diaOrigen);
+        int ultimoDia = hasta == null
+                ? HORIZONTE_DIAS - 1
+                : (int) Math.min(HORIZONTE_DIAS - 1, hasta.toEpochDay() - diaOrigen);
+        if (primerDia > ultimoDia) {
+            return;
+        }
+
+        marcarDias(IndiceEstadosHabitacion.construir(numero, estadosHabitacion), fila, primerDia, ultimoDia);
+    }
+
+    /**
+     * Descarta el contenido; la próxima consulta reconstruye el calendario completo.
+     * Se usa cuando cambia el conjunto de habitaciones.
+     */
+    public synchronized void invalidar() {
+        construido = false;
+    }
+
+    public synchronized boolean contieneHabitacion(Integer numero) {
+        return indiceHabitacion(numero) >= 0;
+    }
+
+    /**
+     * Marca los días [primerDia, ultimoDia] de una habitación según el índice
+     */
+    private void marcarDias(IndiceEstadosHabitacion indice, int fila, int primerDia, int ultimoDia) {
+        Integer numero = numerosHabitaciones[fila];
+        for (int dia = primerDia; dia <= ultimoDia; dia++) {
+            EstadoHab estado = indice.estadoEn(numero, diaOrigen + dia);
+            ocupadasPorDia[dia].set(fila, estado != null && estado != EstadoHab.DISPONIBLE);
+        }
+    }
+
+    private int indiceHabitacion(int numeroHabitacion) {
+        int indice = Arrays.binarySearch(numerosHabitaciones, numeroHabitacion);
+        return indice >= 0 ? indice : -1;
+    }
+}
@@ -0,0 +1,207 @@
+package ar.utn.hotel.disponibilidad;
+
+import ar.utn.hotel.model.EstadoHabitacion;
+import enums.EstadoHab;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Índice en memoria de los intervalos de estado de cada habitación.
+ * Se construye una sola vez a partir del resultado de una consulta y permite
+ * resolver el estado de una habitación en un día en O(log k), siendo k la
+ * cantidad de intervalos de esa habitación.
+ */
+public class IndiceEstadosHabitacion {
+
+    private static final long SIN_FIN = Long.MAX_VALUE;
+    private static final EstadoHab[] ESTADOS = EstadoHab.values();
+
+    private final Map<Integer, IntervalosHabitacion> porHabitacion;
+
+    private IndiceEstadosHabitacion(Map<Integer, IntervalosHabitacion> porHabitacion) {
+        this.porHabitacion = porHabitacion;
+    }
+
+    /**
+     * Construye el índice. Los estados deben tener cargados habitación y tipo de estado.
+     */
+    public static IndiceEstadosHabitacion construir(List<EstadoHabitacion> estados) {
+        Map<Integer, List<EstadoHabitacion>> agrupados = new HashMap<>();
+        for (EstadoHabitacion eh : estados) {
+            agrupados.computeIfAbsent(eh.getHabitacion().getNumero(), k -> new ArrayList<>()).add(eh);
+        }
+
+        Map<Integer, IntervalosHabitacion> indice = new HashMap<>(agrupados.size() * 2);
+        for (Map.Entry<Integer, List<EstadoHabitacion>> entry : agrupados.entrySet()) {
+            indice.put(entry.getKey(), new IntervalosHabitacion(entry.getValue()));
+        }
+        return new IndiceEstadosHabitacion(indice);
+    }
+
+    /**
+     * Construye el índice de una sola habitación. No necesita que los estados
+     * tengan cargada la habitación, solo el tipo de estado.
+     */
+    public static IndiceEstadosHabitacion construir(Integer numeroHabitacion, List<EstadoHabitacion> estados) {
+        Map<Integer, IntervalosHabitacion> indice = new HashMap<>();
+        indice.put(numeroHabitacion, new IntervalosHabitacion(new ArrayList<>(estados)));
+        return new IndiceEstadosHabitacion(indice);
+    }
+
+    /**
+     * Devuelve el estado de la habitación en la fecha indicada, o null si
+     * ningún intervalo la cubre.
+     */
+    public EstadoHab estadoEn(Integer numeroHabitacion, LocalDate fecha) {
+        return estadoEn(numeroHabitacion, fecha.toEpochDay());
+    }
+
+    /**
+     * Igual que {@link #estadoEn(Integer, LocalDate)} pero con el día expresado como epoch day
+     */
+    public EstadoHab estadoEn(Integer numeroHabitacion, long dia) {
+        IntervalosHabitacion intervalos = porHabitacion.get(numeroHabitacion);
+        if (intervalos == null) {
+            return null;
+        }
+        return intervalos.estadoEn(dia);
+    }
+
+    /**
+     * Indica si la habitación está libre todos los días de [desde, hasta]: ningún día
+     * tiene un estado distinto de DISPONIBLE. Los días sin intervalo cuentan como libres,
+     * igual que en el calendario de disponibilidad.
+     */
+    public boolean libreEntre(Integer numeroHabitacion, LocalDate desde, LocalDate hasta) {
+        IntervalosHabitacion intervalos = porHabitacion.get(numeroHabitacion);
+        return intervalos == null || intervalos.libreEntre(desde.toEpochDay(), hasta.toEpochDay());
+    }
+
+    /**
+     * Vuelca en la matriz el estado de cada (habitación, día) que ésta abarca.
+     * Los días que ningún intervalo cubre quedan como DISPONIBLE.
+     */
+    public void volcarEn(MatrizOcupacion matriz) {
+        long diaInicio = matriz.getFechaInicio().toEpochDay();
+        for (int fila = 0; fila < matriz.getCantidadHabitaciones(); fila++) {
+            IntervalosHabitacion intervalos = porHabitacion.get(matriz.getNumeroHabitacion(fila));
+            if (intervalos == null) {
+                continue;
+            }
+            for (int dia = 0; dia < matriz.getCantidadDias(); dia++) {
+                EstadoHab estado = intervalos.estadoEn(diaInicio + dia);
+                if (estado != null) {
+                    matriz.setEstado(fila, dia, estado);
+                }
+            }
+        }
+    }
+
+    /**
+     * Línea de tiempo de una habitación ya resuelta: tramos consecutivos sin superposición,
+     * cada uno con el estado del intervalo que gana según EstadoHabitacion.PRECEDENCIA.
+     * Se arma una vez barriendo los cortes (inicios y días posteriores a cada fin) con un
+     * heap de los intervalos vigentes; después cada consulta es una búsqueda binaria.
+     */
+    private static final class IntervalosHabitacion {
+        private static final byte SIN_ESTADO = -1;
+        private static final byte DISPONIBLE = (byte) EstadoHab.DISPONIBLE.ordinal();
+
+        private final long[] tramoInicio;
+        private final byte[] tramoEstado;
+
+        IntervalosHabitacion(List<EstadoHabitacion> estados) {
+            // Orden ascendente de precedencia: un índice mayor le gana a uno menor
+            estados.sort(EstadoHabitacion.PRECEDENCIA);
+
+            int n = estados.size();
+            long[] inicio = new long[n];
+            long[] fin = new long[n];
+            TreeSet<Long> cortes = new TreeSet<>();
+            for (int i = 0; i < n; i++) {
+                EstadoHabitacion eh = estados.get(i);
+                inicio[i] = eh.getFechaDesde().toEpochDay();
+                fin[i] = eh.getFechaHasta() != null ? eh.getFechaHasta().toEpochDay() : SIN_FIN;
+                cortes.add(inicio[i]);
+                if (fin[i] != SIN_FIN) {
+                    cortes.add(fin[i] + 1);
+                }
+            }
+
+            List<Long> inicios = new ArrayList<>();
+            List<Byte> estadosTramo = new ArrayList<>();
+            PriorityQueue<Integer> vigentes = new PriorityQueue<>(Comparator.reverseOrder());
+            int siguiente = 0;
+            for (long corte : cortes) {
+                // El orden de precedencia es también orden por fecha de inicio
+                while (siguiente < n && inicio[siguiente] <= corte) {
+                    vigentes.add(siguiente++);
+                }
+                while (!vigentes.isEmpty() && fin[vigentes.peek()] < corte) {
+                    vigentes.poll();
+                }
+
+                byte estado = vigentes.isEmpty()
+                        ? SIN_ESTADO
+                        : (byte) estados.get(vigentes.peek()).getTipoEstado().getEstado().ordinal();
+                if (estadosTramo.isEmpty() || estadosTramo.get(estadosTramo.size() - 1) != estado) {
+                    inicios.add(corte);
+                    estadosTramo.add(estado);
+                }
+            }
+
+            tramoInicio = new long[inicios.size()];
+            tramoEstado = new byte[inicios.size()];
+            for (int i = 0; i < tramoInicio.length; i++) {
+                tramoInicio[i] = inicios.get(i);
+                tramoEstado[i] = estadosTramo.get(i);
+            }
+        }
+
+        EstadoHab estadoEn(long dia) {
+            int tramo = tramoEn(dia);
+            if (tramo < 0 || tramoEstado[tramo] == SIN_ESTADO) {
+                return null;
+            }
+            return ESTADOS[tramoEstado[tramo]];
+        }
+
+        boolean libreEntre(long desde, long hasta) {
+            // Tramos que se superponen con [desde, hasta]: el que contiene a desde y los que empiezan después
+            for (int tramo = Math.max(tramoEn(desde), 0);
+                 tramo < tramoInicio.length && tramoInicio[tramo] <= hasta; tramo++) {
+                if (tramoEstado[tramo] != SIN_ESTADO && tramoEstado[tramo] != DISPONIBLE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Último tramo que empieza en o antes del día buscado, o -1 si no hay ninguno
+         */
+        private int tramoEn(long dia) {
+            int lo = 0;
+            int hi = tramoInicio.length - 1;
+            int encontrado = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (tramoInicio[mid] <= dia) {
+                    encontrado = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+
+            return encontrado;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ar.utn.hotel.disponibilidad;
+
+import enums.EstadoHab;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Matriz densa (habitación × día) con el estado de cada celda del calendario.
+ * Cada celda ocupa un byte con el ordinal de {@link EstadoHab}; las habitaciones
+ * se ubican por búsqueda binaria sobre sus números y los días por desplazamiento
+ * desde la fecha de inicio, por lo que las consultas no crean objetos.
+ * Una vista de 1000 habitaciones × 365 días ocupa unos 365 KB.
+ */
+public class MatrizOcupacion {
+
+    private static final EstadoHab[] ESTADOS = EstadoHab.values();
+
+    private final int[] numerosHabitaciones;
+    private final long diaInicio;
+    private final int cantidadDias;
+    private final byte[] celdas;
+
+    public MatrizOcupacion(List<Integer> numerosHabitaciones, LocalDate fechaInicio, LocalDate fechaFin) {
+        this.numerosHabitaciones = numerosHabitaciones.stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        this.diaInicio = fechaInicio.toEpochDay();
+        this.cantidadDias = Math.max(0, (int) (fechaFin.toEpochDay() - diaInicio + 1));
+        this.celdas = new byte[this.numerosHabitaciones.length * cantidadDias];
+        Arrays.fill(celdas, (byte) EstadoHab.DISPONIBLE.ordinal());
+    }
+
+    /**
+     * Posición de la habitación en la matriz, o -1 si no forma parte de ella
+     */
+    public int indiceHabitacion(int numeroHabitacion) {
+        int indice = Arrays.binarySearch(numerosHabitaciones, numeroHabitacion);
+        return indice >= 0 ? indice : -1;
+    }
+
+    public void setEstado(int numeroHabitacion, LocalDate fecha, EstadoHab estado) {
+        setEstado(indiceHabitacion(numeroHabitacion), (int) (fecha.toEpochDay() - diaInicio), estado);
+    }
+
+    public void setEstado(int indiceHabitacion, int desplazamientoDia, EstadoHab estado) {
+        if (!contiene(indiceHabitacion, desplazamientoDia)) {
+            return;
+        }
+        celdas[indiceHabitacion * cantidadDias + desplazamientoDia] = (byte) estado.ordinal();
+    }
+
+    /**
+     * Estado de la habitación en la fecha. Las celdas fuera de la matriz se
+     * consideran DISPONIBLE, igual que los días sin ningún estado registrado.
+     */
+    public EstadoHab getEstado(int numeroHabitacion, LocalDate fecha) {
+        return getEstado(indiceHabitacion(numeroHabitacion), (int) (fecha.toEpochDay() - diaInicio));
+    }
+
+    public EstadoHab getEstado(int indiceHabitacion, int desplazamientoDia) {
+        if (!contiene(indiceHabitacion, desplazamientoDia)) {
+            return EstadoHab.DISPONIBLE;
+        }
+        return ESTADOS[celdas[indiceHabitacion * cantidadDias + desplazamientoDia]];
+    }
+
+    public int getNumeroHabitacion(int indiceHabitacion) {
+        return numerosHabitaciones[indiceHabitacion];
+    }
+
+    public int getCantidadHabitaciones() {
+        return numerosHabitaciones.length;
+    }
+
+    public int getCantidadDias() {
+        return cantidadDias;
+    }
+
+    public LocalDate getFechaInicio() {
+        return LocalDate.ofEpochDay(diaInicio);
+    }
+
+    public LocalDate getFechaFin() {
+        return LocalDate.ofEpochDay(diaInicio + cantidadDias - 1);
+    }
+
+    private boolean contiene(int indiceHabitacion, int desplazamientoDia) {
+        return indiceHabitacion >= 0 && indiceHabitacion < numerosHabitaciones.length
+                && desplazamientoDia >= 0 && desplazamientoDia < cantidadDias;
+    }
+}
@@ -0,0 +1,17 @@
+package ar.utn.hotel.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CombinacionHabitacionesDTO {
+    private List<HabitacionDTO> habitaciones;
+    private Integer capacidadTotal;
+    private Double costoTotal;       // Costo de toda la estadía para todas las habitaciones
+    private Integer cantidadPisos;
+}
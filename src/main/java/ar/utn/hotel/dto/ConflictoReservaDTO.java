@@ -0,0 +1,29 @@
+package ar.utn.hotel.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConflictoReservaDTO {
+    private Integer indiceSolicitud;          // Posición del par (habitación, rango) en el lote
+    private Integer numeroHabitacion;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private Long idReservaExistente;         // Reserva ya registrada con la que choca (null si choca dentro del lote)
+    private Integer indiceSolicitudConflicto; // Otra solicitud del mismo lote con la que choca (null si no aplica)
+    private LocalDate fechaInicioConflicto;
+    private LocalDate fechaFinConflicto;
+
+    @Override
+    public String toString() {
+        String contra = idReservaExistente != null
+                ? "la reserva " + idReservaExistente
+                : "otra habitación del mismo pedido";
+        return "Habitación " + numeroHabitacion + " (" + fechaInicio + " - " + fechaFin + ") se superpone con "
+                + contra + " (" + fechaInicioConflicto + " - " + fechaFinConflicto + ")";
+    }
+}
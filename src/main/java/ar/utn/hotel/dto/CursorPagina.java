@@ -0,0 +1,34 @@
+package ar.utn.hotel.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Posición dentro de un listado paginado por clave: los valores de las columnas de
+ * orden del último elemento entregado. La página siguiente arranca justo después,
+ * con un WHERE sobre esas columnas en lugar de un OFFSET, así que cuesta lo mismo
+ * pedir la primera página que la diez mil.
+ *
+ * Cada DAO arma y lee sus propios cursores; para quien pagina es un valor opaco.
+ */
+@ToString
+@EqualsAndHashCode
+public final class CursorPagina {
+    private final List<Object> claves;
+
+    private CursorPagina(List<Object> claves) {
+        this.claves = claves;
+    }
+
+    public static CursorPagina de(Object... claves) {
+        return new CursorPagina(List.copyOf(Arrays.asList(claves)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T clave(int indice) {
+        return (T) claves.get(indice);
+    }
+}
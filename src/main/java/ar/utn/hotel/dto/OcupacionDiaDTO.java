@@ -0,0 +1,17 @@
+package ar.utn.hotel.dto;
+
+import enums.EstadoHab;
+import lombok.*;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OcupacionDiaDTO {
+    private LocalDate fecha;
+    private EstadoHab estado;
+    private String tipoHabitacion; // null en los reportes que no agrupan por tipo
+    private Long cantidad;
+}
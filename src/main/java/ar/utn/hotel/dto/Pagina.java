@@ -0,0 +1,30 @@
+package ar.utn.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Una página de resultados paginados por clave (keyset).
+ * Para pedir la página siguiente se pasa getSiguiente() al mismo método de listado;
+ * es null cuando no quedan más resultados.
+ */
+@Getter
+@AllArgsConstructor
+public class Pagina<T> {
+    private final List<T> elementos;
+    private final CursorPagina siguiente;
+
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+
+    /**
+     * Misma página con los elementos convertidos (por ejemplo de entidad a DTO)
+     */
+    public <R> Pagina<R> map(Function<T, R> conversion) {
+        return new Pagina<>(elementos.stream().map(conversion).toList(), siguiente);
+    }
+}
@@ -0,0 +1,17 @@
+package ar.utn.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Combinaciones encontradas para un grupo. Si truncado es true la búsqueda llegó a
+ * su límite de exploración y puede haber combinaciones válidas que no figuran.
+ */
+@Getter
+@AllArgsConstructor
+public class ResultadoCombinacionesDTO {
+    private final List<CombinacionHabitacionesDTO> combinaciones;
+    private final boolean truncado;
+}
@@ -0,0 +1,17 @@
+package ar.utn.hotel.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Resultado de una compactación del historial de estados de habitación
+ */
+@Getter
+@Builder
+@ToString
+public class ResultadoCompactacionDTO {
+    private final int habitaciones;     // Habitaciones recorridas al fusionar
+    private final int fusionados;       // Intervalos absorbidos por el intervalo contiguo anterior
+    private final int archivados;       // Intervalos movidos a estado_habitacion_historico
+}
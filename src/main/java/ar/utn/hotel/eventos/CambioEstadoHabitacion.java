@@ -0,0 +1,23 @@
+package ar.utn.hotel.eventos;
+
+import enums.EstadoHab;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+/**
+ * Aviso de que el estado de una habitación cambió en el rango [desde, hasta].
+ * Un hasta nulo indica que el cambio afecta desde "desde" en adelante.
+ * Un estado nulo indica que la habitación fue eliminada.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CambioEstadoHabitacion {
+    private final Integer numero;
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final EstadoHab estado;
+}
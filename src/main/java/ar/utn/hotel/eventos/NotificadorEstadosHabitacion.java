@@ -0,0 +1,68 @@
+package ar.utn.hotel.eventos;
+
+import utils.UnidadDeTrabajo;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Punto único de notificación de cambios de estado de habitaciones dentro del proceso.
+ * Todo lo que escribe estados publica acá después de confirmar la transacción,
+ * y las cachés se suscriben para actualizar solo la porción afectada. Dentro de
+ * una unidad de trabajo los avisos se retienen hasta su commit real.
+ *
+ * Los suscriptores en transacción (tablas derivadas de estado_habitacion) reciben el
+ * cambio en el momento de publicarlo, con la transacción de quien publica todavía
+ * abierta: sus errores llegan a quien publica y deshacen la unidad completa.
+ */
+public class NotificadorEstadosHabitacion {
+
+    private static final List<Consumer<CambioEstadoHabitacion>> suscriptores = new CopyOnWriteArrayList<>();
+    private static final List<Consumer<CambioEstadoHabitacion>> suscriptoresEnTransaccion = new CopyOnWriteArrayList<>();
+
+    private NotificadorEstadosHabitacion() {
+    }
+
+    public static void suscribir(Consumer<CambioEstadoHabitacion> suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    public static void desuscribir(Consumer<CambioEstadoHabitacion> suscriptor) {
+        suscriptores.remove(suscriptor);
+        suscriptoresEnTransaccion.remove(suscriptor);
+    }
+
+    /**
+     * Suscribe un consumidor que escribe en la base junto con el cambio de estado
+     */
+    public static void suscribirEnTransaccion(Consumer<CambioEstadoHabitacion> suscriptor) {
+        suscriptoresEnTransaccion.add(suscriptor);
+    }
+
+    /**
+     * Entrega el cambio a todos los suscriptores. Los suscriptores en transacción
+     * corren primero y sus errores se propagan; entre los demás, uno que falla no
+     * impide que el resto reciba el aviso ni afecta a quien publica.
+     */
+    public static void publicar(CambioEstadoHabitacion cambio) {
+        for (Consumer<CambioEstadoHabitacion> suscriptor : suscriptoresEnTransaccion) {
+            suscriptor.accept(cambio);
+        }
+        UnidadDeTrabajo.alConfirmar(() -> entregar(cambio));
+    }
+
+    public static void publicar(List<CambioEstadoHabitacion> cambios) {
+        cambios.forEach(NotificadorEstadosHabitacion::publicar);
+    }
+
+    private static void entregar(CambioEstadoHabitacion cambio) {
+        for (Consumer<CambioEstadoHabitacion> suscriptor : suscriptores) {
+            try {
+                suscriptor.accept(cambio);
+            } catch (Exception e) {
+                System.err.println("Error al notificar cambio de estado " + cambio + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ar.utn.hotel.excepciones;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * La habitación ya tiene una reserva que se superpone con el rango pedido.
+ * La lanza tanto la validación previa como la restricción reserva_sin_solapamiento
+ * de la base, que es la que garantiza que dos terminales no reserven lo mismo a la vez.
+ */
+@Getter
+public class HabitacionNoDisponibleException extends IllegalStateException {
+
+    private final Integer numeroHabitacion;
+    private final LocalDate fechaInicio;
+    private final LocalDate fechaFin;
+
+    public HabitacionNoDisponibleException(Integer numeroHabitacion, LocalDate fechaInicio,
+                                           LocalDate fechaFin, Throwable causa) {
+        super("La habitación " + numeroHabitacion +
+                " ya se encuentra reservada en el rango de fechas seleccionado.", causa);
+        this.numeroHabitacion = numeroHabitacion;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+    }
+
+    public HabitacionNoDisponibleException(Integer numeroHabitacion, LocalDate fechaInicio, LocalDate fechaFin) {
+        this(numeroHabitacion, fechaInicio, fechaFin, null);
+    }
+}
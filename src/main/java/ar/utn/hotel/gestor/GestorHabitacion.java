@@ -2,13 +2,33 @@ package ar.utn.hotel.gestor;
 
 import ar.utn.hotel.dao.implement.*;
 import ar.utn.hotel.dao.interfaces.*;
+import ar.utn.hotel.disponibilidad.ActualizadorCalendario;
+import ar.utn.hotel.disponibilidad.BuscadorCombinaciones;
+import ar.utn.hotel.disponibilidad.CalendarioDisponibilidad;
+import ar.utn.hotel.disponibilidad.IndiceEstadosHabitacion;
+import ar.utn.hotel.disponibilidad.MatrizOcupacion;
+import ar.utn.hotel.dto.CombinacionHabitacionesDTO;
+import ar.utn.hotel.dto.CursorPagina;
 import ar.utn.hotel.dto.EstadiaDTO;
 import ar.utn.hotel.dto.HabitacionDTO;
+import ar.utn.hotel.dto.OcupacionDiaDTO;
+import ar.utn.hotel.dto.Pagina;
+import ar.utn.hotel.dto.ResultadoCombinacionesDTO;
+import ar.utn.hotel.dto.ResultadoCompactacionDTO;
+import ar.utn.hotel.eventos.CambioEstadoHabitacion;
+import ar.utn.hotel.eventos.NotificadorEstadosHabitacion;
 import ar.utn.hotel.model.*;
+import enums.CriterioCombinacion;
 import enums.EstadoHab;
+import utils.BloqueosHabitaciones;
+import utils.EstadisticasBloqueos;
+import utils.EstadisticasCatalogo;
+import utils.EstadisticasReintentos;
+import utils.PoliticaReintentos;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -18,26 +38,34 @@ import java.util.stream.Collectors;
  */
 public class GestorHabitacion {
 
+    private static final int MAX_COMBINACIONES = 10;
+
     private final HabitacionDAO habitacionDAO;
     private final TipoHabitacionDAO tipoHabitacionDAO;
     private final EstadoHabitacionDAO estadoHabitacionDAO;
     private final TipoEstadoDAO tipoEstadoDAO;
     private final EstadiaDAO estadiaDAO;
     private final ReservaDAO reservaDAO;
+    private final OcupacionDiariaDAO ocupacionDiariaDAO;
     private GestorReserva gestorReserva; // Referencia circular controlada
 
+    // Compartido por todos los gestores del proceso: serializa los cambios de estado por habitación
+    private final BloqueosHabitaciones bloqueos = BloqueosHabitaciones.getInstancia();
+
     public GestorHabitacion(HabitacionDAO habitacionDAO,
                             TipoHabitacionDAO tipoHabitacionDAO,
                             EstadoHabitacionDAO estadoHabitacionDAO,
                             TipoEstadoDAO tipoEstadoDAO,
                             EstadiaDAO estadiaDAO,
-                            ReservaDAO reservaDAO) {
+                            ReservaDAO reservaDAO,
+                            OcupacionDiariaDAO ocupacionDiariaDAO) {
         this.habitacionDAO = habitacionDAO;
         this.tipoHabitacionDAO = tipoHabitacionDAO;
         this.estadoHabitacionDAO = estadoHabitacionDAO;
         this.tipoEstadoDAO = tipoEstadoDAO;
         this.estadiaDAO = estadiaDAO;
         this.reservaDAO = reservaDAO;
+        this.ocupacionDiariaDAO = ocupacionDiariaDAO;
     }
 
     public GestorHabitacion() {
@@ -47,6 +75,7 @@ public class GestorHabitacion {
         this.tipoHabitacionDAO = new TipoHabitacionDAOImpl();
         this.estadiaDAO = new EstadiaDAOImpl();
         this.reservaDAO = new ReservaDAOImpl(tipoEstadoDAO);
+        this.ocupacionDiariaDAO = new OcupacionDiariaDAOImpl();
     }
 
     /**
@@ -62,15 +91,17 @@ public class GestorHabitacion {
      * Crea un tipo de estado en el catálogo
      */
     public TipoEstado crearTipoEstado(EstadoHab estado) {
-        if (tipoEstadoDAO.existeEstado(estado)) {
-            throw new IllegalArgumentException("Ya existe el tipo de estado: " + estado.name());
-        }
+        return PoliticaReintentos.ejecutar(() -> {
+            if (tipoEstadoDAO.existeEstado(estado)) {
+                throw new IllegalArgumentException("Ya existe el tipo de estado: " + estado.name());
+            }
 
-        TipoEstado tipoEstado = TipoEstado.builder()
-                .estado(estado)
-                .build();
+            TipoEstado tipoEstado = TipoEstado.builder()
+                    .estado(estado)
+                    .build();
 
-        return tipoEstadoDAO.guardar(tipoEstado);
+            return tipoEstadoDAO.guardar(tipoEstado);
+        });
     }
 
     /**
@@ -92,18 +123,20 @@ public class GestorHabitacion {
      */
     public TipoHabitacion crearTipoHabitacion(String nombre, String descripcion,
                                               Integer capacidad, Double costoNoche) {
-        if (tipoHabitacionDAO.existeNombre(nombre)) {
-            throw new IllegalArgumentException("Ya existe un tipo de habitación con el nombre: " + nombre);
-        }
+        return PoliticaReintentos.ejecutar(() -> {
+            if (tipoHabitacionDAO.existeNombre(nombre)) {
+                throw new IllegalArgumentException("Ya existe un tipo de habitación con el nombre: " + nombre);
+            }
 
-        TipoHabitacion tipo = TipoHabitacion.builder()
-                .nombre(nombre)
-                .descripcion(descripcion)
-                .capacidad(capacidad)
-                .costoNoche(costoNoche)
-                .build();
+            TipoHabitacion tipo = TipoHabitacion.builder()
+                    .nombre(nombre)
+                    .descripcion(descripcion)
+                    .capacidad(capacidad)
+                    .costoNoche(costoNoche)
+                    .build();
 
-        return tipoHabitacionDAO.guardar(tipo);
+            return tipoHabitacionDAO.guardar(tipo);
+        });
     }
 
     /**
@@ -127,36 +160,67 @@ public class GestorHabitacion {
         return tipoHabitacionDAO.listarTodos();
     }
 
+    /**
+     * Vuelve a leer los catálogos de tipos de estado y de habitación desde la base.
+     * Sólo hace falta si se modificaron por fuera de la aplicación.
+     */
+    public void refrescarCatalogos() {
+        CatalogoCache.getInstancia().refrescar();
+    }
+
+    /**
+     * Aciertos, fallos y cargas de la caché de catálogos
+     */
+    public EstadisticasCatalogo obtenerEstadisticasCatalogos() {
+        return CatalogoCache.getInstancia().getEstadisticas();
+    }
+
+    /**
+     * Conflictos de concurrencia y reintentos de los casos de uso de los gestores
+     */
+    public EstadisticasReintentos obtenerEstadisticasReintentos() {
+        return PoliticaReintentos.getEstadisticas();
+    }
+
+    /**
+     * Adquisiciones y tiempos de espera de los bloqueos por habitación
+     */
+    public EstadisticasBloqueos obtenerEstadisticasBloqueos() {
+        return bloqueos.getEstadisticas();
+    }
+
     // ========== GESTIÓN DE HABITACIONES ==========
 
     /**
      * Crea una nueva habitación con estado inicial DISPONIBLE
      */
     public void crearHabitacion(HabitacionDTO dto) {
-        validarHabitacionDTO(dto);
+        PoliticaReintentos.ejecutarAccion(() -> {
+            validarHabitacionDTO(dto);
 
-        // Verificar que no exista ya
-        if (habitacionDAO.existeNumero(dto.getNumero())) {
-            throw new IllegalArgumentException("Ya existe una habitación con el número " + dto.getNumero());
-        }
+            // Verificar que no exista ya
+            if (habitacionDAO.existeNumero(dto.getNumero())) {
+                throw new IllegalArgumentException("Ya existe una habitación con el número " + dto.getNumero());
+            }
 
-        // Buscar el tipo de habitación
-        TipoHabitacion tipo = buscarTipoHabitacion(dto.getTipo());
-        if (tipo == null) {
-            throw new IllegalArgumentException("No existe el tipo de habitación: " + dto.getTipo());
-        }
+            // Buscar el tipo de habitación
+            TipoHabitacion tipo = buscarTipoHabitacion(dto.getTipo());
+            if (tipo == null) {
+                throw new IllegalArgumentException("No existe el tipo de habitación: " + dto.getTipo());
+            }
 
-        // Crear la habitación
-        Habitacion habitacion = Habitacion.builder()
-                .numero(dto.getNumero())
-                .tipo(tipo)
-                .piso(dto.getPiso())
-                .build();
+            // Crear la habitación
+            Habitacion habitacion = Habitacion.builder()
+                    .numero(dto.getNumero())
+                    .tipo(tipo)
+                    .piso(dto.getPiso())
+                    .build();
 
-        habitacionDAO.guardar(habitacion);
+            habitacionDAO.guardar(habitacion);
 
-        // Crear estado inicial DISPONIBLE
-        crearEstadoInicial(habitacion);
+            // Crear estado inicial DISPONIBLE
+            crearEstadoInicial(habitacion);
+        });
     }
 
     /**
@@ -176,6 +240,10 @@ public class GestorHabitacion {
                 .build();
 
         estadoHabitacionDAO.guardar(estadoInicial);
+        habitacionDAO.sincronizarEstadoActual(habitacion.getNumero());
+
+        NotificadorEstadosHabitacion.publicar(new CambioEstadoHabitacion(
+                habitacion.getNumero(), estadoInicial.getFechaDesde(), null, EstadoHab.DISPONIBLE));
     }
 
     /**
@@ -192,35 +260,132 @@ public class GestorHabitacion {
             );
         }
 
-        List<Habitacion> habitaciones = habitacionDAO.listarPorRangoDeFechas(fechaInicio, fechaFin);
+        return habitacionDAO.listarDTOsSinReservasEntre(fechaInicio, fechaFin);
+    }
 
-        return habitaciones.stream()
-                .map(this::toDTO)
+    /**
+     * Obtiene los números de las habitaciones libres durante todo el rango de fechas.
+     * Se resuelve en memoria con el calendario de disponibilidad; si el rango cae
+     * fuera de su ventana se leen de la base los estados del rango. En los dos casos
+     * una habitación está libre si ningún día del rango tiene un estado distinto de
+     * DISPONIBLE.
+     */
+    public List<Integer> obtenerNumerosHabitacionesLibres(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            throw new IllegalArgumentException("Las fechas no pueden ser nulas");
+        }
+
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException(
+                    "La fecha de inicio no puede ser posterior a la fecha de fin"
+            );
+        }
+
+        CalendarioDisponibilidad calendario = CalendarioDisponibilidad.getInstancia();
+        actualizarVentanaCalendario(calendario);
+
+        if (calendario.cubre(fechaInicio, fechaFin)) {
+            return calendario.habitacionesLibres(fechaInicio, fechaFin);
+        }
+
+        IndiceEstadosHabitacion indice = IndiceEstadosHabitacion.construir(
+                estadoHabitacionDAO.listarEnRango(fechaInicio, fechaFin));
+        return habitacionDAO.listarNumeros().stream()
+                .filter(numero -> indice.libreEntre(numero, fechaInicio, fechaFin))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca combinaciones de habitaciones libres durante todo el rango que alcancen
+     * para la cantidad de huéspedes, ordenadas según las preferencias (en orden de prioridad).
+     * La disponibilidad se resuelve con el calendario en memoria y el catálogo de
+     * habitaciones se lee una sola vez por búsqueda. Si la exploración se cortó por su
+     * límite, el resultado viene marcado como truncado.
+     */
+    public ResultadoCombinacionesDTO buscarCombinacion(LocalDate fechaDesde, LocalDate fechaHasta,
+                                                       int huespedes,
+                                                       List<CriterioCombinacion> preferencias) {
+        if (huespedes <= 0) {
+            throw new IllegalArgumentException("La cantidad de huéspedes debe ser mayor a cero");
+        }
+
+        Set<Integer> libres = new HashSet<>(obtenerNumerosHabitacionesLibres(fechaDesde, fechaHasta));
+        List<Habitacion> candidatas = habitacionDAO.listarConTipo().stream()
+                .filter(h -> libres.contains(h.getNumero()))
+                .collect(Collectors.toList());
+
+        long noches = Math.max(1, ChronoUnit.DAYS.between(fechaDesde, fechaHasta));
+
+        BuscadorCombinaciones.Resultado resultado = new BuscadorCombinaciones(candidatas)
+                .buscar(huespedes, noches, preferencias, MAX_COMBINACIONES);
+        return new ResultadoCombinacionesDTO(
+                resultado.getCombinaciones().stream()
+                        .map(this::toCombinacionDTO)
+                        .collect(Collectors.toList()),
+                resultado.isTruncado());
+    }
+
+    /**
+     * Deja la ventana del calendario empezando hoy: lo construye si no está armado y,
+     * si la fecha cambió desde la última consulta, lo corre leyendo sólo los días nuevos
+     */
+    private void actualizarVentanaCalendario(CalendarioDisponibilidad calendario) {
+        if (!calendario.isConstruido()) {
+            reconstruirCalendarioDisponibilidad();
+            return;
+        }
+
+        LocalDate hoy = LocalDate.now();
+        LocalDate origen = calendario.getOrigen();
+        if (!origen.isBefore(hoy)) {
+            return;
+        }
+
+        LocalDate primerDiaNuevo = origen.plusDays(CalendarioDisponibilidad.HORIZONTE_DIAS);
+        LocalDate finVentana = hoy.plusDays(CalendarioDisponibilidad.HORIZONTE_DIAS - 1);
+        if (primerDiaNuevo.isAfter(finVentana)) {
+            // Más de una ventana sin consultas: no queda nada que conservar
+            reconstruirCalendarioDisponibilidad();
+            return;
+        }
+        ActualizadorCalendario.reconstruir(() -> calendario.avanzarOrigen(
+                hoy, estadoHabitacionDAO.listarEnRango(primerDiaNuevo, finVentana)));
+    }
+
+    /**
+     * Reconstruye el calendario de disponibilidad a partir de los estados registrados,
+     * con una ventana que comienza hoy
+     */
+    public void reconstruirCalendarioDisponibilidad() {
+        LocalDate hoy = LocalDate.now();
+        LocalDate finVentana = hoy.plusDays(CalendarioDisponibilidad.HORIZONTE_DIAS - 1);
+
+        // Los cambios que lleguen mientras se lee la base se aplican al terminar
+        ActualizadorCalendario.reconstruir(() -> CalendarioDisponibilidad.getInstancia().reconstruir(
+                habitacionDAO.listarNumeros(),
+                estadoHabitacionDAO.listarEnRango(hoy, finVentana),
+                hoy
+        ));
+    }
+
     /**
      * Obtiene una habitación por su número
      */
     public HabitacionDTO obtenerHabitacion(Integer numero) {
-        Habitacion habitacion = habitacionDAO.buscarPorNumero(numero);
+        HabitacionDTO habitacion = habitacionDAO.obtenerDTO(numero);
 
         if (habitacion == null) {
             throw new IllegalArgumentException("No existe habitación con el número " + numero);
         }
 
-        return toDTO(habitacion);
+        return habitacion;
     }
 
     /**
      * Obtiene todas las habitaciones
      */
     public List<HabitacionDTO> obtenerTodasHabitaciones() {
-        List<Habitacion> habitaciones = habitacionDAO.listarTodas();
-
-        return habitaciones.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return habitacionDAO.listarDTOs();
     }
 
     /**
@@ -231,11 +396,7 @@ public class GestorHabitacion {
             throw new IllegalArgumentException("El tipo de habitación no puede ser nulo");
         }
 
-        List<Habitacion> habitaciones = habitacionDAO.buscarPorTipo(tipo);
-
-        return habitaciones.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return habitacionDAO.listarDTOsPorTipo(tipo.getIdTipoHabitacion());
     }
 
     /**
@@ -246,54 +407,56 @@ public class GestorHabitacion {
             throw new IllegalArgumentException("El estado no puede ser nulo");
         }
 
-        List<Habitacion> habitaciones = habitacionDAO.buscarPorEstado(estado);
-
-        return habitaciones.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return habitacionDAO.listarDTOsPorEstado(estado);
     }
 
     /**
      * Actualiza una habitación
      */
     public void actualizarHabitacion(HabitacionDTO dto) {
-        validarHabitacionDTO(dto);
+        PoliticaReintentos.ejecutarAccion(() -> {
+            validarHabitacionDTO(dto);
 
-        Habitacion habitacion = habitacionDAO.buscarPorNumero(dto.getNumero());
-        if (habitacion == null) {
-            throw new IllegalArgumentException("No existe habitación con el número " + dto.getNumero());
-        }
+            Habitacion habitacion = habitacionDAO.buscarPorNumero(dto.getNumero());
+            if (habitacion == null) {
+                throw new IllegalArgumentException("No existe habitación con el número " + dto.getNumero());
+            }
 
-        // Buscar el tipo de habitación
-        TipoHabitacion tipo = buscarTipoHabitacion(dto.getTipo());
-        if (tipo == null) {
-            throw new IllegalArgumentException("No existe el tipo de habitación: " + dto.getTipo());
-        }
+            // Buscar el tipo de habitación
+            TipoHabitacion tipo = buscarTipoHabitacion(dto.getTipo());
+            if (tipo == null) {
+                throw new IllegalArgumentException("No existe el tipo de habitación: " + dto.getTipo());
+            }
 
-        habitacion.setTipo(tipo);
-        habitacion.setPiso(dto.getPiso());
+            habitacion.setTipo(tipo);
+            habitacion.setPiso(dto.getPiso());
 
-        habitacionDAO.actualizar(habitacion);
+            habitacionDAO.actualizar(habitacion);
+        });
     }
 
     /**
      * Elimina una habitación
      */
     public void eliminarHabitacion(Integer numero) {
-        Habitacion habitacion = habitacionDAO.buscarPorNumero(numero);
-        if (habitacion == null) {
-            throw new IllegalArgumentException("No existe habitación con el número " + numero);
-        }
+        PoliticaReintentos.ejecutarAccion(() -> {
+            Habitacion habitacion = habitacionDAO.buscarPorNumero(numero);
+            if (habitacion == null) {
+                throw new IllegalArgumentException("No existe habitación con el número " + numero);
+            }
 
-        // Verificar que no tenga reservas o estadías activas
-        EstadoHab estadoActual = obtenerEstadoActual(numero);
-        if (estadoActual == EstadoHab.RESERVADA || estadoActual == EstadoHab.OCUPADA) {
-            throw new IllegalStateException(
-                    "No se puede eliminar una habitación que está reservada u ocupada"
-            );
-        }
+            // Verificar que no tenga reservas o estadías activas
+            EstadoHab estadoActual = obtenerEstadoActual(numero);
+            if (estadoActual == EstadoHab.RESERVADA || estadoActual == EstadoHab.OCUPADA) {
+                throw new IllegalStateException(
+                        "No se puede eliminar una habitación que está reservada u ocupada"
+                );
+            }
+
+            habitacionDAO.eliminar(numero);
 
-        habitacionDAO.eliminar(numero);
+            NotificadorEstadosHabitacion.publicar(new CambioEstadoHabitacion(numero, LocalDate.now(), null, null));
+        });
     }
 
     /**
@@ -312,11 +475,13 @@ public class GestorHabitacion {
     public void reservarHabitaciones(Set<Integer> numerosHabitaciones,
                                      LocalDate fechaDesde,
                                      LocalDate fechaHasta) {
-        validarParametrosReserva(numerosHabitaciones, fechaDesde, fechaHasta);
+        bloqueos.conBloqueoAccion(numerosHabitaciones, () -> PoliticaReintentos.ejecutarAccion(() -> {
+            validarParametrosReserva(numerosHabitaciones, fechaDesde, fechaHasta);
 
-        for (Integer numeroHab : numerosHabitaciones) {
-            cambiarEstadoHabitacion(numeroHab, EstadoHab.RESERVADA, fechaDesde, fechaHasta);
-        }
+            for (Integer numeroHab : numerosHabitaciones) {
+                cambiarEstadoHabitacion(numeroHab, EstadoHab.RESERVADA, fechaDesde, fechaHasta);
+            }
+        }));
     }
 
     /**
@@ -326,24 +491,28 @@ public class GestorHabitacion {
     public void ocuparHabitaciones(Set<Integer> numerosHabitaciones,
                                    LocalDate fechaDesde,
                                    LocalDate fechaHasta) {
-        validarParametrosReserva(numerosHabitaciones, fechaDesde, fechaHasta);
+        bloqueos.conBloqueoAccion(numerosHabitaciones, () -> PoliticaReintentos.ejecutarAccion(() -> {
+            validarParametrosReserva(numerosHabitaciones, fechaDesde, fechaHasta);
 
-        for (Integer numeroHab : numerosHabitaciones) {
-            cambiarEstadoHabitacion(numeroHab, EstadoHab.OCUPADA, fechaDesde, fechaHasta);
-        }
+            for (Integer numeroHab : numerosHabitaciones) {
+                cambiarEstadoHabitacion(numeroHab, EstadoHab.OCUPADA, fechaDesde, fechaHasta);
+            }
+        }));
     }
 
     /**
      * Libera habitaciones (cambia estado a DISPONIBLE)
      */
     public void liberarHabitaciones(Set<Integer> numerosHabitaciones) {
-        if (numerosHabitaciones == null || numerosHabitaciones.isEmpty()) {
-            throw new IllegalArgumentException("Debe proporcionar al menos una habitación");
-        }
+        bloqueos.conBloqueoAccion(numerosHabitaciones, () -> PoliticaReintentos.ejecutarAccion(() -> {
+            if (numerosHabitaciones == null || numerosHabitaciones.isEmpty()) {
+                throw new IllegalArgumentException("Debe proporcionar al menos una habitación");
+            }
 
-        for (Integer numeroHab : numerosHabitaciones) {
-            cambiarEstadoHabitacion(numeroHab, EstadoHab.DISPONIBLE, LocalDate.now(), null);
-        }
+            for (Integer numeroHab : numerosHabitaciones) {
+                cambiarEstadoHabitacion(numeroHab, EstadoHab.DISPONIBLE, LocalDate.now(), null);
+            }
+        }));
     }
 
     /**
@@ -352,17 +521,17 @@ public class GestorHabitacion {
     public void ponerEnMantenimiento(Set<Integer> numerosHabitaciones,
                                      LocalDate fechaDesde,
                                      LocalDate fechaHasta) {
-        if (numerosHabitaciones == null || numerosHabitaciones.isEmpty()) {
-            throw new IllegalArgumentException("Debe proporcionar al menos una habitación");
-        }
+        bloqueos.conBloqueoAccion(numerosHabitaciones, () -> PoliticaReintentos.ejecutarAccion(() -> {
+            if (numerosHabitaciones == null || numerosHabitaciones.isEmpty()) {
+                throw new IllegalArgumentException("Debe proporcionar al menos una habitación");
+            }
 
-        if (fechaDesde == null) {
-            fechaDesde = LocalDate.now();
-        }
+            LocalDate desde = fechaDesde != null ? fechaDesde : LocalDate.now();
 
-        for (Integer numeroHab : numerosHabitaciones) {
-            cambiarEstadoHabitacion(numeroHab, EstadoHab.MANTENIMIENTO, fechaDesde, fechaHasta);
-        }
+            for (Integer numeroHab : numerosHabitaciones) {
+                cambiarEstadoHabitacion(numeroHab, EstadoHab.MANTENIMIENTO, desde, fechaHasta);
+            }
+        }));
     }
 
     /**
@@ -387,7 +556,8 @@ public class GestorHabitacion {
 
         // Cerrar el estado actual si existe y está abierto
         EstadoHabitacion estadoActual = estadoHabitacionDAO.obtenerEstadoActual(numeroHabitacion);
-        if (estadoActual != null && estadoActual.getFechaHasta() == null) {
+        boolean cerroEstadoAbierto = estadoActual != null && estadoActual.getFechaHasta() == null;
+        if (cerroEstadoAbierto) {
             estadoActual.setFechaHasta(fechaDesde.minusDays(1));
             estadoHabitacionDAO.actualizar(estadoActual);
         }
@@ -401,6 +571,19 @@ public class GestorHabitacion {
                 .build();
 
         estadoHabitacionDAO.guardar(nuevoEstadoHab);
+        habitacionDAO.sincronizarEstadoActual(numeroHabitacion);
+
+        // Si se cerró un estado abierto, cambian todos los días desde fechaDesde en adelante
+        NotificadorEstadosHabitacion.publicar(new CambioEstadoHabitacion(
+                numeroHabitacion, fechaDesde, cerroEstadoAbierto ? null : fechaHasta, nuevoEstado));
+    }
+
+    /**
+     * Recalcula de una vez el estado actual de las habitaciones que no fueron
+     * sincronizadas hoy. Se ejecuta al iniciar la aplicación.
+     */
+    public int sincronizarEstadosActuales() {
+        return habitacionDAO.sincronizarEstadosActuales();
     }
 
     /**
@@ -428,25 +611,33 @@ public class GestorHabitacion {
      * @return EstadiaDTO con la información de la estadía creada
      */
     public EstadiaDTO realizarCheckIn(Long idReserva) {
-        // Buscar la reserva
-        Reserva reserva = reservaDAO.obtenerPorId(idReserva);
-        if (reserva == null) {
+        Reserva previa = reservaDAO.obtenerPorId(idReserva);
+        if (previa == null) {
             throw new IllegalArgumentException("No existe reserva con ID " + idReserva);
         }
 
-        // Verificar que no tenga ya una estadía
-        if (reserva.getEstadia() != null) {
-            throw new IllegalArgumentException("La reserva ya tiene una estadía asociada");
-        }
+        // La habitación de una reserva no cambia: se bloquea antes de abrir la transacción
+        Set<Integer> habitacion = Collections.singleton(previa.getHabitacion().getNumero());
+        return bloqueos.conBloqueo(habitacion, () -> PoliticaReintentos.ejecutar(() -> {
+            // Buscar la reserva
+            Reserva reserva = reservaDAO.obtenerPorId(idReserva);
+            if (reserva == null) {
+                throw new IllegalArgumentException("No existe reserva con ID " + idReserva);
+            }
 
-        // Crear la estadía usando el método del DAO
-        Estadia estadia = estadiaDAO.crearDesdeReserva(reserva);
+            // Verificar que no tenga ya una estadía
+            if (reserva.getEstadia() != null) {
+                throw new IllegalArgumentException("La reserva ya tiene una estadía asociada");
+            }
 
-        // Cambiar estado de la habitación a OCUPADA
-        Set<Integer> habitacion = Collections.singleton(reserva.getHabitacion().getNumero());
-        ocuparHabitaciones(habitacion, reserva.getFechaInicio(), reserva.getFechaFin());
+            // Crear la estadía usando el método del DAO
+            Estadia estadia = estadiaDAO.crearDesdeReserva(reserva);
 
-        return toEstadiaDTO(estadia);
+            // Cambiar estado de la habitación a OCUPADA
+            ocuparHabitaciones(habitacion, reserva.getFechaInicio(), reserva.getFechaFin());
+
+            return toEstadiaDTO(estadia);
+        }));
     }
 
     /**
@@ -456,24 +647,31 @@ public class GestorHabitacion {
      * @return EstadiaDTO actualizada
      */
     public EstadiaDTO realizarCheckOut(Integer idEstadia) {
-        Estadia estadia = estadiaDAO.buscarPorId(idEstadia);
-        if (estadia == null) {
+        Estadia previa = estadiaDAO.buscarPorId(idEstadia);
+        if (previa == null) {
             throw new IllegalArgumentException("No existe estadía con ID " + idEstadia);
         }
 
-        if (estadia.getHoraCheckOut() != null) {
-            throw new IllegalArgumentException("La estadía ya tiene check-out registrado");
-        }
+        Set<Integer> habitacion = Collections.singleton(previa.getHabitacion().getNumero());
+        return bloqueos.conBloqueo(habitacion, () -> PoliticaReintentos.ejecutar(() -> {
+            Estadia estadia = estadiaDAO.buscarPorId(idEstadia);
+            if (estadia == null) {
+                throw new IllegalArgumentException("No existe estadía con ID " + idEstadia);
+            }
 
-        // Registrar hora de check-out
-        estadia.setHoraCheckOut(LocalDateTime.now());
-        estadiaDAO.actualizar(estadia);
+            if (estadia.getHoraCheckOut() != null) {
+                throw new IllegalArgumentException("La estadía ya tiene check-out registrado");
+            }
 
-        // Cambiar estado de la habitación a DISPONIBLE
-        Set<Integer> habitacion = Collections.singleton(estadia.getHabitacion().getNumero());
-        liberarHabitaciones(habitacion);
+            // Registrar hora de check-out
+            estadia.setHoraCheckOut(LocalDateTime.now());
+            estadiaDAO.actualizar(estadia);
 
-        return toEstadiaDTO(estadia);
+            // Cambiar estado de la habitación a DISPONIBLE
+            liberarHabitaciones(habitacion);
+
+            return toEstadiaDTO(estadia);
+        }));
     }
 
     /**
@@ -487,32 +685,38 @@ public class GestorHabitacion {
             throw new IllegalArgumentException("La reserva no puede ser nula");
         }
 
-        // Crear la estadía
-        Estadia estadia = estadiaDAO.crearDesdeReserva(reserva);
-
-        // Cambiar estado a OCUPADA
         Set<Integer> habitacion = Collections.singleton(reserva.getHabitacion().getNumero());
-        ocuparHabitaciones(habitacion, reserva.getFechaInicio(), reserva.getFechaFin());
+        return bloqueos.conBloqueo(habitacion, () -> PoliticaReintentos.ejecutar(() -> {
+            // Crear la estadía
+            Estadia estadia = estadiaDAO.crearDesdeReserva(reserva);
 
-        return toEstadiaDTO(estadia);
+            // Cambiar estado a OCUPADA
+            ocuparHabitaciones(habitacion, reserva.getFechaInicio(), reserva.getFechaFin());
+
+            return toEstadiaDTO(estadia);
+        }));
+    }
+
+    /**
+     * Lista una página de estadías, de la más reciente a la más antigua.
+     * Pasar null como cursor para la primera página y luego pagina.getSiguiente().
+     */
+    public Pagina<EstadiaDTO> listarEstadias(CursorPagina desde, int tamanio) {
+        return estadiaDAO.obtenerPagina(desde, tamanio).map(this::toEstadiaDTO);
     }
 
     /**
      * Obtiene todas las estadías activas (sin check-out)
      */
     public List<EstadiaDTO> listarEstadiasActivas() {
-        return estadiaDAO.listarActivas().stream()
-                .map(this::toEstadiaDTO)
-                .collect(Collectors.toList());
+        return estadiaDAO.listarDTOsActivas();
     }
 
     /**
      * Obtiene estadías por habitación
      */
     public List<EstadiaDTO> listarEstadiasPorHabitacion(Integer numeroHabitacion) {
-        return estadiaDAO.listarPorHabitacion(numeroHabitacion).stream()
-                .map(this::toEstadiaDTO)
-                .collect(Collectors.toList());
+        return estadiaDAO.listarDTOsPorHabitacion(numeroHabitacion);
     }
 
     /**
@@ -529,37 +733,115 @@ public class GestorHabitacion {
             );
         }
 
-        return estadiaDAO.listarPorFechas(fechaInicio, fechaFin).stream()
-                .map(this::toEstadiaDTO)
-                .collect(Collectors.toList());
+        return estadiaDAO.listarDTOsPorFechas(fechaInicio, fechaFin);
     }
 
     /**
      * Busca estadía por reserva
      */
     public EstadiaDTO buscarEstadiaPorReserva(Long idReserva) {
-        Estadia estadia = estadiaDAO.buscarPorReserva(idReserva);
-        return estadia != null ? toEstadiaDTO(estadia) : null;
+        return estadiaDAO.buscarDTOPorReserva(idReserva);
     }
 
-    // ========== MÉTODOS AUXILIARES ==========
+    // ========== REPORTES DE OCUPACIÓN ==========
 
     /**
-     * Convierte una entidad Habitacion a DTO
+     * Cantidad de habitaciones en cada estado no disponible, día por día.
+     * Se lee de la foto diaria, sin expandir los intervalos de estado.
      */
-    private HabitacionDTO toDTO(Habitacion habitacion) {
-        EstadoHab estadoActual = obtenerEstadoActual(habitacion.getNumero());
+    public List<OcupacionDiaDTO> obtenerOcupacionPorDia(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRangoReporte(fechaInicio, fechaFin);
+        return ocupacionDiariaDAO.contarPorDia(fechaInicio, fechaFin);
+    }
+
+    /**
+     * Igual que obtenerOcupacionPorDia pero desglosado por tipo de habitación
+     */
+    public List<OcupacionDiaDTO> obtenerOcupacionPorDiaYTipo(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRangoReporte(fechaInicio, fechaFin);
+        return ocupacionDiariaDAO.contarPorDiaYTipo(fechaInicio, fechaFin);
+    }
+
+    /**
+     * Vuelve a calcular la foto diaria de todas las habitaciones en el rango
+     */
+    public void regenerarOcupacionDiaria(LocalDate fechaInicio, LocalDate fechaFin) {
+        validarRangoReporte(fechaInicio, fechaFin);
+        ocupacionDiariaDAO.regenerar(fechaInicio, fechaFin);
+    }
+
+    private void validarRangoReporte(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            throw new IllegalArgumentException("Las fechas no pueden ser nulas");
+        }
+
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException(
+                    "La fecha de inicio no puede ser posterior a la fecha de fin"
+            );
+        }
+    }
+
+    // ========== COMPACTACIÓN DEL HISTORIAL ==========
+
+    /**
+     * Compacta el historial de estados: fusiona intervalos contiguos del mismo estado y
+     * archiva en estado_habitacion_historico los intervalos cerrados antes del horizonte
+     * (hoy menos diasHorizonte). Antes de archivar se regenera la foto de ocupación diaria
+     * de ese período, para que los reportes históricos no pierdan información.
+     * La fusión va habitación por habitación, cada una en su propia transacción, así nunca
+     * se carga la tabla entera ni se retienen sus filas durante todo el proceso.
+     */
+    public ResultadoCompactacionDTO compactarHistorialEstados(int diasHorizonte) {
+        if (diasHorizonte < 0) {
+            throw new IllegalArgumentException("El horizonte de compactación no puede ser negativo");
+        }
+
+        List<Integer> numeros = habitacionDAO.listarNumeros();
+        int fusionados = 0;
+        for (Integer numero : numeros) {
+            fusionados += estadoHabitacionDAO.fusionarIntervalosContiguos(numero);
+        }
+
+        LocalDate corte = LocalDate.now().minusDays(diasHorizonte);
+        LocalDate primerFecha = estadoHabitacionDAO.obtenerPrimerFechaAnteriorA(corte);
+        int archivados = 0;
+        if (primerFecha != null) {
+            ocupacionDiariaDAO.regenerar(primerFecha, corte.minusDays(1));
+            archivados = estadoHabitacionDAO.archivarCerradosAntesDe(corte);
+        }
+
+        return ResultadoCompactacionDTO.builder()
+                .habitaciones(numeros.size())
+                .fusionados(fusionados)
+                .archivados(archivados)
+                .build();
+    }
+
+    // ========== MÉTODOS AUXILIARES ==========
+
+    /**
+     * Convierte una combinación encontrada a DTO. Las habitaciones están libres en
+     * todo el rango buscado, por lo que no se consulta su estado actual.
+     */
+    private CombinacionHabitacionesDTO toCombinacionDTO(BuscadorCombinaciones.Combinacion combinacion) {
+        List<HabitacionDTO> habitaciones = combinacion.getHabitaciones().stream()
+                .map(h -> HabitacionDTO.builder()
+                        .numero(h.getNumero())
+                        .tipo(h.getTipo().getNombre())
+                        .idTipoHabitacion(h.getTipo().getIdTipoHabitacion())
+                        .costoNoche(h.getCostoNoche())
+                        .piso(h.getPiso())
+                        .capacidad(h.getTipo().getCapacidad())
+                        .descripcion(h.getTipo().getDescripcion())
+                        .build())
+                .collect(Collectors.toList());
 
-        return HabitacionDTO.builder()
-                .numero(habitacion.getNumero())
-                .tipo(habitacion.getTipo() != null ? habitacion.getTipo().getNombre() : null)
-                .idTipoHabitacion(habitacion.getTipo() != null ?
-                        habitacion.getTipo().getIdTipoHabitacion() : null)
-                .costoNoche(habitacion.getCostoNoche())
-                .piso(habitacion.getPiso())
-                .capacidad(habitacion.getTipo() != null ? habitacion.getTipo().getCapacidad() : null)
-                .descripcion(habitacion.getTipo() != null ? habitacion.getTipo().getDescripcion() : null)
-                .estadoActual(estadoActual != null ? estadoActual.name() : null)
+        return CombinacionHabitacionesDTO.builder()
+                .habitaciones(habitaciones)
+                .capacidadTotal(combinacion.getCapacidadTotal())
+                .costoTotal(combinacion.getCostoTotal())
+                .cantidadPisos(combinacion.getCantidadPisos())
                 .build();
     }
 
@@ -617,11 +899,12 @@ public class GestorHabitacion {
 
     /**
      * Obtiene todos los estados de múltiples habitaciones en un rango de fechas
-     * Optimizado para evitar N+1 queries
+     * Optimizado para evitar N+1 queries. El resultado es una matriz densa
+     * (habitación × día) que se consulta sin crear objetos.
      */
-    public Map<String, EstadoHab> obtenerEstadosEnRango(List<Integer> numerosHabitaciones,
-                                                        LocalDate fechaInicio,
-                                                        LocalDate fechaFin) {
+    public MatrizOcupacion obtenerEstadosEnRango(List<Integer> numerosHabitaciones,
+                                                 LocalDate fechaInicio,
+                                                 LocalDate fechaFin) {
         return estadoHabitacionDAO.obtenerEstadosEnRango(numerosHabitaciones, fechaInicio, fechaFin);
     }
 
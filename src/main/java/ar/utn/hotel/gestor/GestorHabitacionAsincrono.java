@@ -0,0 +1,110 @@
+package ar.utn.hotel.gestor;
+
+import ar.utn.hotel.disponibilidad.MatrizOcupacion;
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.EstadiaDTO;
+import ar.utn.hotel.dto.HabitacionDTO;
+import ar.utn.hotel.dto.OcupacionDiaDTO;
+import ar.utn.hotel.dto.Pagina;
+import ar.utn.hotel.dto.ResultadoCombinacionesDTO;
+import enums.CriterioCombinacion;
+import utils.EjecutorGestores;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versión asincrónica de GestorHabitacion: consultas de habitaciones y estados,
+ * cambios de estado, check-in y check-out en hilos virtuales. Las consultas
+ * devuelven sólo DTO, nunca entidades desconectadas de su sesión.
+ */
+public class GestorHabitacionAsincrono {
+
+    private final GestorHabitacion gestor;
+
+    public GestorHabitacionAsincrono(GestorHabitacion gestor) {
+        this.gestor = gestor;
+    }
+
+    // ========== CONSULTAS ==========
+
+    public CompletableFuture<List<HabitacionDTO>> obtenerTodasHabitaciones() {
+        return EjecutorGestores.ejecutar(gestor::obtenerTodasHabitaciones);
+    }
+
+    public CompletableFuture<HabitacionDTO> obtenerHabitacion(Integer numero) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerHabitacion(numero));
+    }
+
+    public CompletableFuture<List<HabitacionDTO>> obtenerHabitacionesDisponibles(LocalDate fechaInicio,
+                                                                                LocalDate fechaFin) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerHabitacionesDisponibles(fechaInicio, fechaFin));
+    }
+
+    public CompletableFuture<ResultadoCombinacionesDTO> buscarCombinacion(LocalDate fechaDesde,
+                                                                         LocalDate fechaHasta,
+                                                                         int huespedes,
+                                                                         List<CriterioCombinacion> preferencias) {
+        return EjecutorGestores.ejecutar(() ->
+                gestor.buscarCombinacion(fechaDesde, fechaHasta, huespedes, preferencias));
+    }
+
+    public CompletableFuture<MatrizOcupacion> obtenerEstadosEnRango(List<Integer> numerosHabitaciones,
+                                                                   LocalDate fechaInicio,
+                                                                   LocalDate fechaFin) {
+        return EjecutorGestores.ejecutar(() ->
+                gestor.obtenerEstadosEnRango(numerosHabitaciones, fechaInicio, fechaFin));
+    }
+
+    public CompletableFuture<List<OcupacionDiaDTO>> obtenerOcupacionPorDia(LocalDate fechaInicio, LocalDate fechaFin) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerOcupacionPorDia(fechaInicio, fechaFin));
+    }
+
+    public CompletableFuture<Pagina<EstadiaDTO>> listarEstadias(CursorPagina desde, int tamanio) {
+        return EjecutorGestores.ejecutar(() -> gestor.listarEstadias(desde, tamanio));
+    }
+
+    public CompletableFuture<List<EstadiaDTO>> listarEstadiasActivas() {
+        return EjecutorGestores.ejecutar(gestor::listarEstadiasActivas);
+    }
+
+    // ========== CAMBIOS DE ESTADO ==========
+
+    public CompletableFuture<Void> reservarHabitaciones(Set<Integer> numerosHabitaciones,
+                                                        LocalDate fechaDesde, LocalDate fechaHasta) {
+        return EjecutorGestores.ejecutarAccion(() ->
+                gestor.reservarHabitaciones(numerosHabitaciones, fechaDesde, fechaHasta));
+    }
+
+    public CompletableFuture<Void> ocuparHabitaciones(Set<Integer> numerosHabitaciones,
+                                                      LocalDate fechaDesde, LocalDate fechaHasta) {
+        return EjecutorGestores.ejecutarAccion(() ->
+                gestor.ocuparHabitaciones(numerosHabitaciones, fechaDesde, fechaHasta));
+    }
+
+    public CompletableFuture<Void> liberarHabitaciones(Set<Integer> numerosHabitaciones) {
+        return EjecutorGestores.ejecutarAccion(() -> gestor.liberarHabitaciones(numerosHabitaciones));
+    }
+
+    public CompletableFuture<Void> ponerEnMantenimiento(Set<Integer> numerosHabitaciones,
+                                                        LocalDate fechaDesde, LocalDate fechaHasta) {
+        return EjecutorGestores.ejecutarAccion(() ->
+                gestor.ponerEnMantenimiento(numerosHabitaciones, fechaDesde, fechaHasta));
+    }
+
+    // ========== ESTADÍAS ==========
+
+    public CompletableFuture<EstadiaDTO> realizarCheckIn(Long idReserva) {
+        return EjecutorGestores.ejecutar(() -> gestor.realizarCheckIn(idReserva));
+    }
+
+    public CompletableFuture<EstadiaDTO> realizarCheckOut(Integer idEstadia) {
+        return EjecutorGestores.ejecutar(() -> gestor.realizarCheckOut(idEstadia));
+    }
+
+    public GestorHabitacion getGestor() {
+        return gestor;
+    }
+}
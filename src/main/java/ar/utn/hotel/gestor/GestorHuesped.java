@@ -4,9 +4,12 @@ import ar.utn.hotel.dao.interfaces.DireccionDAO;
 import ar.utn.hotel.dao.interfaces.HuespedDAO;
 import ar.utn.hotel.dao.implement.DireccionDAOImpl;
 import ar.utn.hotel.dao.implement.HuespedDAOImpl;
+import ar.utn.hotel.dto.CursorPagina;
 import ar.utn.hotel.dto.DarAltaHuespedDTO;
 import ar.utn.hotel.dto.HuespedDTO;
+import ar.utn.hotel.dto.Pagina;
 import ar.utn.hotel.model.*;
+import utils.PoliticaReintentos;
 
 import java.util.List;
 
@@ -31,58 +34,67 @@ public class GestorHuesped {
      * Da de alta un nuevo huésped en el sistema
      */
     public Huesped cargar(DarAltaHuespedDTO dto) {
-        // Verificar si ya existe
-        if (huespedDAO.existePorDocumento(dto.getNumeroDocumento(), dto.getTipoDocumento())) {
-            throw new IllegalArgumentException(
-                    "Ya existe un huésped registrado con el documento " +
-                            dto.getTipoDocumento() + " " + dto.getNumeroDocumento()
+        return PoliticaReintentos.ejecutar(() -> {
+            // Verificar si ya existe
+            if (huespedDAO.existePorDocumento(dto.getNumeroDocumento(), dto.getTipoDocumento())) {
+                throw new IllegalArgumentException(
+                        "Ya existe un huésped registrado con el documento " +
+                                dto.getTipoDocumento() + " " + dto.getNumeroDocumento()
+                );
+            }
+
+            // Buscar o crear Dirección
+            Direccion dir = direccionDAO.buscarPorDatos(
+                    dto.getCalle(),
+                    dto.getNumero(),
+                    dto.getDepto(),
+                    dto.getPiso(),
+                    dto.getCodPostal(),
+                    dto.getLocalidad(),
+                    dto.getProvincia(),
+                    dto.getPais()
             );
-        }
 
-        // Buscar o crear Dirección
-        Direccion dir = direccionDAO.buscarPorDatos(
-                dto.getCalle(),
-                dto.getNumero(),
-                dto.getDepto(),
-                dto.getPiso(),
-                dto.getCodPostal(),
-                dto.getLocalidad(),
-                dto.getProvincia(),
-                dto.getPais()
-        );
-
-        if (dir == null) {
-            dir = Direccion.builder()
-                    .calle(dto.getCalle())
-                    .numero(dto.getNumero())
-                    .departamento(dto.getDepto())
-                    .piso(dto.getPiso())
-                    .codPostal(dto.getCodPostal())
-                    .localidad(dto.getLocalidad())
-                    .provincia(dto.getProvincia())
-                    .pais(dto.getPais())
-                    .build();
+            if (dir == null) {
+                dir = Direccion.builder()
+                        .calle(dto.getCalle())
+                        .numero(dto.getNumero())
+                        .departamento(dto.getDepto())
+                        .piso(dto.getPiso())
+                        .codPostal(dto.getCodPostal())
+                        .localidad(dto.getLocalidad())
+                        .provincia(dto.getProvincia())
+                        .pais(dto.getPais())
+                        .build();
 
-            direccionDAO.guardar(dir);
-        }
+                direccionDAO.guardar(dir);
+            }
 
-        // Crear Huesped
-        Huesped huesped = Huesped.builder()
-                .nombre(dto.getNombre())
-                .apellido(dto.getApellido())
-                .telefono(dto.getTelefono())
-                .direccion(dir)
-                .numeroDocumento(dto.getNumeroDocumento())
-                .tipoDocumento(dto.getTipoDocumento())
-                .posicionIVA(dto.getPosicionIVA())
-                .fechaNacimiento(dto.getFechaNacimiento())
-                .ocupacion(dto.getOcupacion())
-                .nacionalidad(dto.getNacionalidad())
-                .email(dto.getEmail())
-                .cuit(dto.getCuit())
-                .build();
+            // Crear Huesped
+            Huesped huesped = Huesped.builder()
+                    .nombre(dto.getNombre())
+                    .apellido(dto.getApellido())
+                    .telefono(dto.getTelefono())
+                    .direccion(dir)
+                    .numeroDocumento(dto.getNumeroDocumento())
+                    .tipoDocumento(dto.getTipoDocumento())
+                    .posicionIVA(dto.getPosicionIVA())
+                    .fechaNacimiento(dto.getFechaNacimiento())
+                    .ocupacion(dto.getOcupacion())
+                    .nacionalidad(dto.getNacionalidad())
+                    .email(dto.getEmail())
+                    .cuit(dto.getCuit())
+                    .build();
+
+            return huespedDAO.guardar(huesped);
+        });
+    }
 
-        return huespedDAO.guardar(huesped);
+    /**
+     * Da de alta un nuevo huésped y lo devuelve como DTO
+     */
+    public HuespedDTO cargarDTO(DarAltaHuespedDTO dto) {
+        return toDTO(cargar(dto));
     }
 
     /**
@@ -93,6 +105,13 @@ public class GestorHuesped {
         return huespedDAO.buscarHuesped(dto);
     }
 
+    /**
+     * Igual que buscarHuesped, pero sin cargar las entidades: sólo las columnas del DTO
+     */
+    public List<HuespedDTO> buscarHuespedDTO(HuespedDTO dto) {
+        return huespedDAO.buscarHuespedDTO(dto);
+    }
+
     /**
      * Busca huéspedes por nombre y apellido
      */
@@ -163,6 +182,22 @@ public class GestorHuesped {
         return huesped;
     }
 
+    /**
+     * Obtiene un huésped por ID como DTO
+     */
+    public HuespedDTO obtenerDTOPorId(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("El ID no puede ser nulo");
+        }
+
+        HuespedDTO huesped = huespedDAO.obtenerDTOPorId(id);
+        if (huesped == null) {
+            throw new IllegalArgumentException("No existe huésped con ID " + id);
+        }
+
+        return huesped;
+    }
+
     /**
      * Obtiene todos los huéspedes
      */
@@ -170,6 +205,14 @@ public class GestorHuesped {
         return huespedDAO.obtenerTodos();
     }
 
+    /**
+     * Obtiene una página de huéspedes (como DTO) ordenados por apellido y nombre.
+     * Pasar null como cursor para la primera página y luego pagina.getSiguiente().
+     */
+    public Pagina<HuespedDTO> obtenerPagina(CursorPagina desde, int tamanio) {
+        return huespedDAO.obtenerPagina(desde, tamanio);
+    }
+
     /**
      * Actualiza un huésped existente
      */
@@ -191,4 +234,25 @@ public class GestorHuesped {
 
         huespedDAO.eliminar(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Convierte una entidad Huesped a DTO.
+     */
+    private HuespedDTO toDTO(Huesped huesped) {
+        return HuespedDTO.builder()
+                .id(huesped.getId())
+                .nombre(huesped.getNombre())
+                .apellido(huesped.getApellido())
+                .numeroDocumento(huesped.getNumeroDocumento())
+                .tipoDocumento(huesped.getTipoDocumento())
+                .telefono(huesped.getTelefono())
+                .email(huesped.getEmail())
+                .cuit(huesped.getCuit())
+                .posicionIVA(huesped.getPosicionIVA())
+                .fechaNacimiento(huesped.getFechaNacimiento())
+                .ocupacion(huesped.getOcupacion())
+                .nacionalidad(huesped.getNacionalidad())
+                .idDireccion(huesped.getDireccion() != null ? huesped.getDireccion().getId() : null)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package ar.utn.hotel.gestor;
+
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.DarAltaHuespedDTO;
+import ar.utn.hotel.dto.HuespedDTO;
+import ar.utn.hotel.dto.Pagina;
+import ar.utn.hotel.model.Huesped;
+import utils.EjecutorGestores;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versión asincrónica de GestorHuesped para los controladores: cada método corre el
+ * caso de uso en un hilo virtual y devuelve un CompletableFuture, así el hilo de
+ * JavaFX no espera a la base. El resultado se lleva a la interfaz con HiloFx.
+ *
+ * Las consultas devuelven DTO: una entidad que cruza al hilo de JavaFX ya está
+ * desconectada de su sesión y cualquier relación perezosa falla al leerse.
+ */
+public class GestorHuespedAsincrono {
+
+    private final GestorHuesped gestor;
+
+    public GestorHuespedAsincrono(GestorHuesped gestor) {
+        this.gestor = gestor;
+    }
+
+    public GestorHuespedAsincrono() {
+        this(new GestorHuesped());
+    }
+
+    public CompletableFuture<HuespedDTO> cargar(DarAltaHuespedDTO dto) {
+        return EjecutorGestores.ejecutar(() -> gestor.cargarDTO(dto));
+    }
+
+    public CompletableFuture<List<HuespedDTO>> buscarHuesped(HuespedDTO dto) {
+        return EjecutorGestores.ejecutar(() -> gestor.buscarHuespedDTO(dto));
+    }
+
+    public CompletableFuture<List<HuespedDTO>> buscarPorNombreApellido(String nombre, String apellido) {
+        return buscarHuesped(HuespedDTO.builder()
+                .nombre(nombre)
+                .apellido(apellido)
+                .build());
+    }
+
+    public CompletableFuture<List<HuespedDTO>> buscarPorDocumento(String numeroDocumento, String tipoDocumento) {
+        return buscarHuesped(HuespedDTO.builder()
+                .numeroDocumento(numeroDocumento)
+                .tipoDocumento(tipoDocumento)
+                .build());
+    }
+
+    public CompletableFuture<HuespedDTO> obtenerPorId(Long id) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerDTOPorId(id));
+    }
+
+    public CompletableFuture<Pagina<HuespedDTO>> obtenerPagina(CursorPagina desde, int tamanio) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerPagina(desde, tamanio));
+    }
+
+    public CompletableFuture<Void> actualizar(Huesped huesped) {
+        return EjecutorGestores.ejecutarAccion(() -> gestor.actualizar(huesped));
+    }
+
+    public CompletableFuture<Void> eliminar(Long id) {
+        return EjecutorGestores.ejecutarAccion(() -> gestor.eliminar(id));
+    }
+
+    public GestorHuesped getGestor() {
+        return gestor;
+    }
+}
@@ -5,20 +5,29 @@ import ar.utn.hotel.dao.interfaces.ReservaDAO;
 import ar.utn.hotel.dao.implement.HuespedDAOImpl;
 import ar.utn.hotel.dao.implement.ReservaDAOImpl;
 import ar.utn.hotel.dao.implement.TipoEstadoDAOImpl;
+import ar.utn.hotel.dto.ConflictoReservaDTO;
 import ar.utn.hotel.dto.CrearReservaDTO;
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.Pagina;
 import ar.utn.hotel.dto.ReservaDTO;
 import ar.utn.hotel.model.Huesped;
 import ar.utn.hotel.model.Reserva;
+import utils.BloqueosHabitaciones;
+import utils.PoliticaReintentos;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Gestor que maneja la lógica de negocio relacionada con las reservas.
  * Coordina con GestorHabitacion para cambiar estados de habitaciones.
+ * Cada caso de uso que escribe corre en una UnidadDeTrabajo: una sesión y una transacción,
+ * que PoliticaReintentos repite si choca con lo que grabó otra terminal.
  */
 public class GestorReserva {
 
@@ -26,6 +35,8 @@ public class GestorReserva {
     private final HuespedDAO huespedDAO;
     private GestorHabitacion gestorHabitacion; // Referencia circular controlada
 
+    private final BloqueosHabitaciones bloqueos = BloqueosHabitaciones.getInstancia();
+
     public GestorReserva(ReservaDAO reservaDAO, HuespedDAO huespedDAO) {
         this.reservaDAO = reservaDAO;
         this.huespedDAO = huespedDAO;
@@ -55,57 +66,135 @@ public class GestorReserva {
     public ReservaDTO crearReserva(CrearReservaDTO dto) throws Exception {
         validarCrearReservaDTO(dto);
 
-        // Verificar que el huésped existe
-        Huesped huesped = huespedDAO.obtenerPorId(dto.getIdHuesped());
-        if (huesped == null) {
-            throw new IllegalArgumentException("Error: El huésped no existe en el sistema.");
-        }
+        Set<Integer> habitacion = Collections.singleton(dto.getNumeroHabitacion());
+        return bloqueos.conBloqueo(habitacion, () -> PoliticaReintentos.ejecutar(() -> {
+            // Verificar que el huésped existe
+            Huesped huesped = huespedDAO.obtenerPorId(dto.getIdHuesped());
+            if (huesped == null) {
+                throw new IllegalArgumentException("Error: El huésped no existe en el sistema.");
+            }
 
-        // Crear la reserva (el DAO ya maneja el cambio de estado de la habitación)
-        Reserva reserva = reservaDAO.crearReserva(dto);
+            // Crear la reserva (el DAO ya maneja el cambio de estado de la habitación)
+            Reserva reserva = reservaDAO.crearReserva(dto);
 
-        // Cambiar estado de la habitación a RESERVADA usando el gestor
-        if (gestorHabitacion != null) {
-            gestorHabitacion.reservarHabitaciones(
-                    Collections.singleton(dto.getNumeroHabitacion()),
-                    dto.getFechaInicio(),
-                    dto.getFechaFin()
-            );
-        }
+            // Cambiar estado de la habitación a RESERVADA usando el gestor
+            if (gestorHabitacion != null) {
+                gestorHabitacion.reservarHabitaciones(
+                        habitacion,
+                        dto.getFechaInicio(),
+                        dto.getFechaFin()
+                );
+            }
 
-        return toDTO(reserva);
+            return toDTO(reserva);
+        }));
     }
 
 
+    /**
+     * Crea varias reservas. Antes de escribir nada valida el lote completo y verifica
+     * la disponibilidad de todos los pares (habitación, rango) en una sola consulta.
+     * O se crean todas las reservas o ninguna.
+     */
     public List<ReservaDTO> crearReservasMultiples(List<CrearReservaDTO> dtos) throws Exception {
-        List<ReservaDTO> reservasCreadas = new ArrayList<>();
+        return crearReservaGrupal(dtos, false);
+    }
 
+    /**
+     * Reserva grupal atómica: valida el grupo completo y crea cada Reserva con su
+     * EstadoHabitacion y, si se pide check-in, su Estadia, todo en una sola transacción.
+     * Si algo falla no queda nada grabado.
+     *
+     * Con check-in, una habitación que ya tiene una reserva que cubre la fecha de ingreso
+     * usa esa reserva en lugar de crear otra (el huésped llega con reserva previa).
+     * Las habitaciones del grupo quedan bloqueadas juntas hasta el commit.
+     *
+     * @return las reservas del grupo, en el mismo orden que los DTO
+     */
+    public List<ReservaDTO> crearReservaGrupal(List<CrearReservaDTO> dtos, boolean conCheckIn) throws Exception {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos una habitación");
+        }
         for (CrearReservaDTO dto : dtos) {
-            ReservaDTO reserva = crearReserva(dto);
-            reservasCreadas.add(reserva);
-
-            // Pequeño delay entre operaciones
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            validarCrearReservaDTO(dto);
+        }
+        if (conCheckIn && gestorHabitacion == null) {
+            throw new IllegalStateException("El check-in grupal requiere el gestor de habitaciones");
         }
 
-        return reservasCreadas;
+        Set<Integer> habitaciones = dtos.stream()
+                .map(CrearReservaDTO::getNumeroHabitacion)
+                .collect(Collectors.toSet());
+
+        return bloqueos.conBloqueo(habitaciones, () -> PoliticaReintentos.ejecutar(() -> {
+            // Reserva a usar por cada DTO: la existente (sólo con check-in) o null si hay que crearla
+            List<Reserva> existentes = new ArrayList<>();
+            List<CrearReservaDTO> nuevas = new ArrayList<>();
+            for (CrearReservaDTO dto : dtos) {
+                Reserva existente = conCheckIn
+                        ? buscarReservaPorHabitacionYFecha(dto.getNumeroHabitacion(), dto.getFechaInicio())
+                        : null;
+                existentes.add(existente);
+                if (existente == null) {
+                    nuevas.add(dto);
+                }
+            }
+
+            List<ConflictoReservaDTO> conflictos = verificarDisponibilidad(nuevas);
+            if (!conflictos.isEmpty()) {
+                throw new IllegalStateException("Las siguientes habitaciones no están disponibles:\n" +
+                        conflictos.stream()
+                                .map(ConflictoReservaDTO::toString)
+                                .collect(Collectors.joining("\n")));
+            }
+
+            // La verificación de arriba ya cubre a todo el grupo: el alta no vuelve a consultar por reserva
+            Iterator<Reserva> creadas = nuevas.isEmpty()
+                    ? Collections.emptyIterator()
+                    : reservaDAO.crearReservasVerificadas(nuevas).iterator();
+            List<Long> ids = new ArrayList<>();
+            for (Reserva existente : existentes) {
+                ids.add(existente != null ? existente.getId() : creadas.next().getId());
+            }
+
+            if (conCheckIn) {
+                for (Long id : ids) {
+                    gestorHabitacion.realizarCheckIn(id);
+                }
+            }
+
+            // Se releen al final para que reflejen las estadías recién creadas
+            List<ReservaDTO> reservas = new ArrayList<>();
+            for (Long id : ids) {
+                reservas.add(reservaDAO.obtenerDTOPorId(id));
+            }
+            return reservas;
+        }));
+    }
+
+    /**
+     * Verifica en una sola consulta si un lote de pares (habitación, rango) puede reservarse.
+     * Devuelve exactamente los pares que chocan, ya sea con reservas existentes
+     * o con otro par del mismo lote. Una lista vacía indica que todo está disponible.
+     */
+    public List<ConflictoReservaDTO> verificarDisponibilidad(List<CrearReservaDTO> solicitudes) {
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return reservaDAO.buscarConflictos(solicitudes);
     }
 
     /**
      * Obtiene una reserva por su ID
      */
     public ReservaDTO obtenerReserva(Long id) {
-        Reserva reserva = reservaDAO.obtenerPorId(id);
+        ReservaDTO reserva = reservaDAO.obtenerDTOPorId(id);
 
         if (reserva == null) {
             throw new IllegalArgumentException("No existe reserva con el ID " + id);
         }
 
-        return toDTO(reserva);
+        return reserva;
     }
 
     /**
@@ -120,22 +209,22 @@ public class GestorReserva {
      * Lista todas las reservas
      */
     public List<ReservaDTO> listarReservas() {
-        List<Reserva> reservas = reservaDAO.obtenerTodas();
+        return reservaDAO.listarDTOs();
+    }
 
-        return reservas.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+    /**
+     * Lista una página de reservas, de la más reciente a la más antigua.
+     * Pasar null como cursor para la primera página y luego pagina.getSiguiente().
+     */
+    public Pagina<ReservaDTO> listarReservas(CursorPagina desde, int tamanio) {
+        return reservaDAO.obtenerPagina(desde, tamanio).map(this::toDTO);
     }
 
     /**
      * Obtiene reservas por huésped
      */
     public List<ReservaDTO> obtenerReservasPorHuesped(Long idHuesped) {
-        List<Reserva> reservas = reservaDAO.obtenerPorHuesped(idHuesped);
-
-        return reservas.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return reservaDAO.listarDTOsPorHuesped(idHuesped);
     }
 
     /**
@@ -150,49 +239,48 @@ public class GestorReserva {
             throw new IllegalArgumentException("La fecha de inicio no puede ser posterior a la fecha de fin");
         }
 
-        List<Reserva> reservas = reservaDAO.obtenerPorFechas(fechaInicio, fechaFin);
-
-        return reservas.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return reservaDAO.listarDTOsPorFechas(fechaInicio, fechaFin);
     }
 
     /**
      * Obtiene reservas por habitación
      */
     public List<ReservaDTO> obtenerReservasPorHabitacion(Integer numeroHabitacion) {
-        List<Reserva> reservas = reservaDAO.obtenerPorHabitacion(numeroHabitacion);
-
-        return reservas.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return reservaDAO.listarDTOsPorHabitacion(numeroHabitacion);
     }
 
     /**
      * Cancela una reserva y libera la habitación (cambia estado a DISPONIBLE)
      */
     public void cancelarReserva(Long id) {
-        Reserva reserva = reservaDAO.obtenerPorId(id);
-        if (reserva == null) {
+        Reserva previa = reservaDAO.obtenerPorId(id);
+        if (previa == null) {
             throw new IllegalArgumentException("No existe reserva con el ID " + id);
         }
 
-        // Verificar que la reserva no tenga estadía asociada
-        if (reserva.getEstadia() != null) {
-            throw new IllegalStateException(
-                    "No se puede cancelar una reserva que ya tiene una estadía asociada (check-in realizado)"
-            );
-        }
+        // La habitación se bloquea antes de abrir la transacción y queda tomada hasta el commit
+        Set<Integer> habitacion = Collections.singleton(previa.getHabitacion().getNumero());
+        bloqueos.conBloqueoAccion(habitacion, () -> PoliticaReintentos.ejecutarAccion(() -> {
+            Reserva reserva = reservaDAO.obtenerPorId(id);
+            if (reserva == null) {
+                throw new IllegalArgumentException("No existe reserva con el ID " + id);
+            }
 
-        // Liberar la habitación (cambiar estado a DISPONIBLE)
-        if (gestorHabitacion != null) {
-            gestorHabitacion.liberarHabitaciones(
-                    Collections.singleton(reserva.getHabitacion().getNumero())
-            );
-        }
+            // Verificar que la reserva no tenga estadía asociada
+            if (reserva.getEstadia() != null) {
+                throw new IllegalStateException(
+                        "No se puede cancelar una reserva que ya tiene una estadía asociada (check-in realizado)"
+                );
+            }
+
+            // Liberar la habitación (cambiar estado a DISPONIBLE)
+            if (gestorHabitacion != null) {
+                gestorHabitacion.liberarHabitaciones(habitacion);
+            }
 
-        // Eliminar la reserva (el DAO también maneja el cambio de estado)
-        reservaDAO.eliminar(id);
+            // Eliminar la reserva (el DAO también maneja el cambio de estado)
+            reservaDAO.eliminar(id);
+        }));
     }
 
     /**
@@ -200,29 +288,31 @@ public class GestorReserva {
      * Útil para verificar si existe una reserva antes de crear una estadía
      */
     public Reserva buscarReservaPorHabitacionYFecha(Integer numeroHabitacion, LocalDate fecha) {
-        try {
-            List<Reserva> reservas = reservaDAO.obtenerPorHabitacion(numeroHabitacion);
-
-            return reservas.stream()
-                    .filter(r -> !fecha.isBefore(r.getFechaInicio()) &&
-                            !fecha.isAfter(r.getFechaFin()))
-                    .findFirst()
-                    .orElse(null);
-        } catch (Exception e) {
-            System.err.println("Error al buscar reserva: " + e.getMessage());
-            return null;
-        }
+        // Un error de lectura se propaga: dentro de una unidad de trabajo tiene que deshacerla
+        return reservaDAO.obtenerPorHabitacion(numeroHabitacion).stream()
+                .filter(r -> !fecha.isBefore(r.getFechaInicio()) &&
+                        !fecha.isAfter(r.getFechaFin()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Igual que buscarReservaPorHabitacionYFecha, pero leyendo sólo las columnas del DTO
+     */
+    public ReservaDTO buscarReservaDTOPorHabitacionYFecha(Integer numeroHabitacion, LocalDate fecha) {
+        return reservaDAO.listarDTOsPorHabitacion(numeroHabitacion).stream()
+                .filter(r -> !fecha.isBefore(r.getFechaInicio()) &&
+                        !fecha.isAfter(r.getFechaFin()))
+                .findFirst()
+                .orElse(null);
     }
 
     /**
      * Busca reservas activas (sin estadía) por habitación
      */
     public List<ReservaDTO> buscarReservasActivasPorHabitacion(Integer numeroHabitacion) {
-        List<Reserva> reservas = reservaDAO.obtenerPorHabitacion(numeroHabitacion);
-
-        return reservas.stream()
-                .filter(r -> r.getEstadia() == null) // Sin estadía = reserva activa
-                .map(this::toDTO)
+        return reservaDAO.listarDTOsPorHabitacion(numeroHabitacion).stream()
+                .filter(r -> !r.getTieneEstadia()) // Sin estadía = reserva activa
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,77 @@
+package ar.utn.hotel.gestor;
+
+import ar.utn.hotel.dto.ConflictoReservaDTO;
+import ar.utn.hotel.dto.CrearReservaDTO;
+import ar.utn.hotel.dto.CursorPagina;
+import ar.utn.hotel.dto.Pagina;
+import ar.utn.hotel.dto.ReservaDTO;
+import utils.EjecutorGestores;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versión asincrónica de GestorReserva: mismos casos de uso, ejecutados en hilos
+ * virtuales y devueltos como CompletableFuture
+ */
+public class GestorReservaAsincrono {
+
+    private final GestorReserva gestor;
+
+    public GestorReservaAsincrono(GestorReserva gestor) {
+        this.gestor = gestor;
+    }
+
+    public CompletableFuture<ReservaDTO> crearReserva(CrearReservaDTO dto) {
+        return EjecutorGestores.ejecutar(() -> gestor.crearReserva(dto));
+    }
+
+    public CompletableFuture<List<ReservaDTO>> crearReservasMultiples(List<CrearReservaDTO> dtos) {
+        return EjecutorGestores.ejecutar(() -> gestor.crearReservasMultiples(dtos));
+    }
+
+    public CompletableFuture<List<ReservaDTO>> crearReservaGrupal(List<CrearReservaDTO> dtos, boolean conCheckIn) {
+        return EjecutorGestores.ejecutar(() -> gestor.crearReservaGrupal(dtos, conCheckIn));
+    }
+
+    public CompletableFuture<List<ConflictoReservaDTO>> verificarDisponibilidad(List<CrearReservaDTO> solicitudes) {
+        return EjecutorGestores.ejecutar(() -> gestor.verificarDisponibilidad(solicitudes));
+    }
+
+    public CompletableFuture<ReservaDTO> obtenerReserva(Long id) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerReserva(id));
+    }
+
+    public CompletableFuture<Pagina<ReservaDTO>> listarReservas(CursorPagina desde, int tamanio) {
+        return EjecutorGestores.ejecutar(() -> gestor.listarReservas(desde, tamanio));
+    }
+
+    public CompletableFuture<List<ReservaDTO>> obtenerReservasPorHuesped(Long idHuesped) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerReservasPorHuesped(idHuesped));
+    }
+
+    public CompletableFuture<List<ReservaDTO>> obtenerReservasPorFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerReservasPorFechas(fechaInicio, fechaFin));
+    }
+
+    public CompletableFuture<List<ReservaDTO>> obtenerReservasPorHabitacion(Integer numeroHabitacion) {
+        return EjecutorGestores.ejecutar(() -> gestor.obtenerReservasPorHabitacion(numeroHabitacion));
+    }
+
+    public CompletableFuture<ReservaDTO> buscarReservaPorHabitacionYFecha(Integer numeroHabitacion, LocalDate fecha) {
+        return EjecutorGestores.ejecutar(() -> gestor.buscarReservaDTOPorHabitacionYFecha(numeroHabitacion, fecha));
+    }
+
+    public CompletableFuture<List<ReservaDTO>> buscarReservasActivasPorHabitacion(Integer numeroHabitacion) {
+        return EjecutorGestores.ejecutar(() -> gestor.buscarReservasActivasPorHabitacion(numeroHabitacion));
+    }
+
+    public CompletableFuture<Void> cancelarReserva(Long id) {
+        return EjecutorGestores.ejecutarAccion(() -> gestor.cancelarReserva(id));
+    }
+
+    public GestorReserva getGestor() {
+        return gestor;
+    }
+}
@@ -13,7 +13,8 @@ import lombok.*;
 public class Direccion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "direccion_seq")
+    @SequenceGenerator(name = "direccion_seq", sequenceName = "direccion_seq", allocationSize = 50)
     @Column(name = "id_direccion")
     private Long id;
 
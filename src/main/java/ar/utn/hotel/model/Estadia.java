@@ -6,7 +6,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "estadia")
+@Table(name = "estadia", indexes = {
+        // Paginación por clave de estadías (EstadiaDAO.obtenerPagina)
+        @Index(name = "idx_estadia_fecha_inicio", columnList = "fecha_inicio, id_estadia")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,10 +18,15 @@ import java.time.LocalDateTime;
 public class Estadia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estadia_seq")
+    @SequenceGenerator(name = "estadia_seq", sequenceName = "estadia_seq", allocationSize = 50)
     @Column(name = "id_estadia")
     private Integer idEstadia;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @OneToOne
     @JoinColumn(name = "id_reserva", nullable = false)
     private Reserva reserva;
@@ -3,6 +3,7 @@ package ar.utn.hotel.model;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
+import java.util.Comparator;
 
 @Entity
 @Table(name = "estado_habitacion")
@@ -13,10 +14,28 @@ import java.time.LocalDate;
 @Builder
 public class EstadoHabitacion {
 
+    // Precedencia entre intervalos que cubren el mismo día: gana el de fechaDesde más
+    // reciente y, a igual fecha, el de id mayor. crearReserva deja abierto el DISPONIBLE
+    // anterior, así que la reserva tiene que ganarle. La comparten el puntero estadoActual,
+    // la grilla, el calendario de disponibilidad y la foto diaria.
+    public static final Comparator<EstadoHabitacion> PRECEDENCIA = Comparator
+            .comparing(EstadoHabitacion::getFechaDesde)
+            .thenComparing(EstadoHabitacion::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    // El mismo criterio como ORDER BY, primero el que gana (alias eh)
+    public static final String ORDEN_PRECEDENCIA_HQL = "eh.fechaDesde DESC, eh.id DESC";
+    public static final String ORDEN_PRECEDENCIA_SQL = "eh.fecha_desde DESC, eh.id DESC";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estado_habitacion_seq")
+    @SequenceGenerator(name = "estado_habitacion_seq", sequenceName = "estado_habitacion_seq", allocationSize = 50)
     private Integer id;
 
+    // Dos cambios de estado que cierran el mismo intervalo abierto no pueden pisarse
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "numero_habitacion", nullable = false)
     private Habitacion habitacion;
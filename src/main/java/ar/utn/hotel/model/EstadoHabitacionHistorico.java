@@ -0,0 +1,38 @@
+package ar.utn.hotel.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Intervalo de estado ya cerrado que salió de estado_habitacion al compactar el historial.
+ * Conserva el id original y guarda referencias simples para no volver a cargarse
+ * junto con la habitación.
+ */
+@Entity
+@Table(name = "estado_habitacion_historico")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadoHabitacionHistorico {
+
+    @Id
+    private Integer id;
+
+    @Column(name = "numero_habitacion", nullable = false)
+    private Integer numeroHabitacion;
+
+    @Column(name = "id_tipo_estado", nullable = false)
+    private Integer idTipoEstado;
+
+    @Column(name = "fecha_desde", nullable = false)
+    private LocalDate fechaDesde;
+
+    @Column(name = "fecha_hasta", nullable = false)
+    private LocalDate fechaHasta;
+
+    @Column(name = "fecha_archivado", nullable = false)
+    private LocalDate fechaArchivado;
+}
@@ -2,6 +2,7 @@ package ar.utn.hotel.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.OptimisticLock;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
@@ -19,6 +20,12 @@ public class Habitacion {
     @Column(nullable = false, unique = true)
     private Integer numero;
 
+    // Bloqueo optimista sobre los datos propios de la habitación. El puntero al estado
+    // actual queda afuera: es derivado y se recalcula en cada reserva o transición
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @ManyToOne
     @JoinColumn(name = "id_tipo_habitacion", nullable = false)
     private TipoHabitacion tipo;
@@ -26,15 +33,32 @@ public class Habitacion {
     @Column(nullable = false)
     private Integer piso;
 
+    // Agregar un intervalo tampoco cuenta como cambio de la habitación: cada
+    // EstadoHabitacion tiene su propia versión
     @OneToMany(mappedBy = "habitacion", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OptimisticLock(excluded = true)
     @Builder.Default
     private Set<EstadoHabitacion> estados = new HashSet<>();
 
+    // Estado vigente, mantenido en cada transición para no recorrer el historial.
+    // Vale para el día indicado en estadoActualAl; en días posteriores puede estar desactualizado.
+    // No aumenta la versión, así dos reservas de la misma habitación en fechas distintas no chocan.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_estado_actual")
+    @OptimisticLock(excluded = true)
+    private EstadoHabitacion estadoActual;
+
+    @Column(name = "estado_actual_al")
+    @OptimisticLock(excluded = true)
+    private LocalDate estadoActualAl;
+
     @OneToMany(mappedBy = "habitacion")
+    @OptimisticLock(excluded = true)
     @Builder.Default
     private Set<Reserva> reservas = new HashSet<>();
 
     @OneToMany(mappedBy = "habitacion")
+    @OptimisticLock(excluded = true)
     @Builder.Default
     private Set<Estadia> estadias = new HashSet<>();
 
@@ -43,17 +67,14 @@ public class Habitacion {
         return tipo != null ? tipo.getCostoNoche() : 0.0;
     }
 
-    public EstadoHabitacion getEstadoActual() {
-        return estados.stream()
-                .filter(EstadoHabitacion::isActivo)
-                .findFirst()
-                .orElse(null);
+    public boolean isEstadoActualVigente(LocalDate fecha) {
+        return fecha.equals(estadoActualAl);
     }
 
     public EstadoHabitacion getEstadoEn(LocalDate fecha) {
         return estados.stream()
                 .filter(e -> e.isVigenteEn(fecha))
-                .findFirst()
+                .max(EstadoHabitacion.PRECEDENCIA)
                 .orElse(null);
     }
 }
\ No newline at end of file
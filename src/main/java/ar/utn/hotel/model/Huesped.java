@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "huesped")
+@Table(name = "huesped", indexes = {
+        // Paginación por clave de huéspedes (HuespedDAO.obtenerPagina)
+        @Index(name = "idx_huesped_apellido_nombre", columnList = "apellido, nombre, id_huesped")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,7 +16,8 @@ import lombok.*;
 public class Huesped {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "huesped_seq")
+    @SequenceGenerator(name = "huesped_seq", sequenceName = "huesped_seq", allocationSize = 50)
     @Column(name = "id_huesped")
     private Long id;
 
@@ -0,0 +1,39 @@
+package ar.utn.hotel.model;
+
+import enums.EstadoHab;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Foto diaria del estado de cada habitación, derivada de estado_habitacion.
+ * Solo se guardan los días en que la habitación NO está disponible: un día sin
+ * fila equivale a DISPONIBLE. La clave (fecha, numero_habitacion) deja las filas
+ * ordenadas por fecha, así que los reportes por rango leen un tramo contiguo.
+ */
+@Entity
+@Table(name = "ocupacion_diaria")
+@IdClass(OcupacionDiariaId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OcupacionDiaria {
+
+    @Id
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Id
+    @Column(name = "numero_habitacion", nullable = false)
+    private Integer numeroHabitacion;
+
+    // Copia del tipo de la habitación para agregar por tipo sin joins
+    @Column(name = "id_tipo_habitacion", nullable = false)
+    private Integer idTipoHabitacion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private EstadoHab estado;
+}
@@ -0,0 +1,15 @@
+package ar.utn.hotel.model;
+
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class OcupacionDiariaId implements Serializable {
+    private LocalDate fecha;
+    private Integer numeroHabitacion;
+}
@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "reserva")
+@Table(name = "reserva", indexes = {
+        // Paginación por clave de reservas (ReservaDAO.obtenerPagina)
+        @Index(name = "idx_reserva_fecha_inicio", columnList = "fecha_inicio, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,9 +17,14 @@ import java.time.LocalDate;
 public class Reserva {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reserva_seq")
+    @SequenceGenerator(name = "reserva_seq", sequenceName = "reserva_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
     @ManyToOne
     @JoinColumn(name = "id_huesped", nullable = false)
     private Huesped huesped;
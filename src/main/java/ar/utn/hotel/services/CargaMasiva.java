@@ -0,0 +1,198 @@
+package ar.utn.hotel.services;
+
+import ar.utn.hotel.dao.implement.CatalogoCache;
+import ar.utn.hotel.dao.implement.HabitacionDAOImpl;
+import ar.utn.hotel.dao.implement.TipoEstadoDAOImpl;
+import ar.utn.hotel.disponibilidad.CalendarioDisponibilidad;
+import ar.utn.hotel.dto.CrearReservaDTO;
+import ar.utn.hotel.dto.DarAltaHuespedDTO;
+import ar.utn.hotel.dto.HabitacionDTO;
+import ar.utn.hotel.model.*;
+import enums.EstadoHab;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import utils.HibernateUtil;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Carga masiva de huéspedes, habitaciones y reservas para importaciones grandes.
+ * Todo se inserta en una sola transacción por carga con lotes JDBC: los ids salen de
+ * secuencias con bloques de 50, y cada TAMANIO_LOTE filas se hace flush (una ida a la
+ * base por tabla) y clear (la sesión no acumula entidades). Las referencias se arman
+ * con getReference, sin consultar las filas relacionadas.
+ *
+ * No valida solapamientos ni publica cambios de estado por fila: al terminar se
+ * invalida el calendario de disponibilidad (y tras las reservas se resincroniza el
+ * estado actual de las habitaciones). La ocupación diaria se completa con
+ * RegeneradorOcupacionDiaria.
+ */
+public class CargaMasiva {
+
+    // Igual a hibernate.jdbc.batch_size
+    private static final int TAMANIO_LOTE = 50;
+
+    /**
+     * Inserta los huéspedes con sus direcciones. Las direcciones idénticas dentro de la carga se comparten.
+     */
+    public int cargarHuespedes(List<DarAltaHuespedDTO> dtos) {
+        Map<List<String>, Long> direcciones = new HashMap<>();
+
+        return cargar(dtos, "huéspedes", (session, dto) -> {
+            List<String> claveDireccion = Arrays.asList(dto.getCalle(), dto.getNumero(), dto.getDepto(),
+                    dto.getPiso(), dto.getCodPostal(), dto.getLocalidad(), dto.getProvincia(), dto.getPais());
+
+            Long idDireccion = direcciones.get(claveDireccion);
+            if (idDireccion == null && claveDireccion.stream().anyMatch(Objects::nonNull)) {
+                Direccion direccion = Direccion.builder()
+                        .calle(dto.getCalle())
+                        .numero(dto.getNumero())
+                        .departamento(dto.getDepto())
+                        .piso(dto.getPiso())
+                        .codPostal(dto.getCodPostal())
+                        .localidad(dto.getLocalidad())
+                        .provincia(dto.getProvincia())
+                        .pais(dto.getPais())
+                        .build();
+                session.persist(direccion);
+                idDireccion = direccion.getId();
+                direcciones.put(claveDireccion, idDireccion);
+            }
+
+            Huesped huesped = Huesped.builder()
+                    .nombre(dto.getNombre())
+                    .apellido(dto.getApellido())
+                    .telefono(dto.getTelefono())
+                    .direccion(idDireccion != null ? session.getReference(Direccion.class, idDireccion) : null)
+                    .numeroDocumento(dto.getNumeroDocumento())
+                    .tipoDocumento(dto.getTipoDocumento())
+                    .posicionIVA(dto.getPosicionIVA())
+                    .fechaNacimiento(dto.getFechaNacimiento())
+                    .ocupacion(dto.getOcupacion())
+                    .nacionalidad(dto.getNacionalidad())
+                    .email(dto.getEmail())
+                    .cuit(dto.getCuit())
+                    .build();
+            session.persist(huesped);
+        });
+    }
+
+    /**
+     * Inserta las habitaciones (el tipo se indica por id o por nombre) con su estado
+     * inicial DISPONIBLE desde hoy, que queda además como estado actual.
+     */
+    public int cargarHabitaciones(List<HabitacionDTO> dtos) {
+        LocalDate hoy = LocalDate.now();
+        Map<String, Integer> tiposPorNombre = new HashMap<>();
+        Integer[] idDisponible = new Integer[1];
+
+        int cargadas = cargar(dtos, "habitaciones", (session, dto) -> {
+            if (idDisponible[0] == null) {
+                idDisponible[0] = idTipoEstado(EstadoHab.DISPONIBLE);
+                CatalogoCache.getInstancia().tiposHabitacion()
+                        .forEach(t -> tiposPorNombre.put(t.getNombre(), t.getIdTipoHabitacion()));
+            }
+
+            Integer idTipo = dto.getIdTipoHabitacion() != null ? dto.getIdTipoHabitacion() : tiposPorNombre.get(dto.getTipo());
+            if (idTipo == null) {
+                throw new IllegalArgumentException("No existe el tipo de habitación: " + dto.getTipo());
+            }
+
+            Habitacion habitacion = Habitacion.builder()
+                    .numero(dto.getNumero())
+                    .tipo(session.getReference(TipoHabitacion.class, idTipo))
+                    .piso(dto.getPiso())
+                    .build();
+            session.persist(habitacion);
+
+            EstadoHabitacion estadoInicial = EstadoHabitacion.builder()
+                    .habitacion(habitacion)
+                    .tipoEstado(session.getReference(TipoEstado.class, idDisponible[0]))
+                    .fechaDesde(hoy)
+                    .build();
+            session.persist(estadoInicial);
+
+            habitacion.setEstadoActual(estadoInicial);
+            habitacion.setEstadoActualAl(hoy);
+        });
+
+        CalendarioDisponibilidad.getInstancia().invalidar();
+        return cargadas;
+    }
+
+    /**
+     * Inserta las reservas con su período RESERVADA en el historial de estados
+     */
+    public int cargarReservas(List<CrearReservaDTO> dtos) {
+        Integer[] idReservada = new Integer[1];
+
+        int cargadas = cargar(dtos, "reservas", (session, dto) -> {
+            if (idReservada[0] == null) {
+                idReservada[0] = idTipoEstado(EstadoHab.RESERVADA);
+            }
+
+            Habitacion habitacion = session.getReference(Habitacion.class, dto.getNumeroHabitacion());
+
+            session.persist(EstadoHabitacion.builder()
+                    .habitacion(habitacion)
+                    .tipoEstado(session.getReference(TipoEstado.class, idReservada[0]))
+                    .fechaDesde(dto.getFechaInicio())
+                    .fechaHasta(dto.getFechaFin())
+                    .build());
+
+            session.persist(Reserva.builder()
+                    .huesped(session.getReference(Huesped.class, dto.getIdHuesped()))
+                    .habitacion(habitacion)
+                    .fechaInicio(dto.getFechaInicio())
+                    .fechaFin(dto.getFechaFin())
+                    .cantHuespedes(dto.getCantHuespedes())
+                    .descuento(dto.getDescuento())
+                    .build());
+        });
+
+        new HabitacionDAOImpl(new TipoEstadoDAOImpl()).sincronizarEstadosActuales();
+        CalendarioDisponibilidad.getInstancia().invalidar();
+        return cargadas;
+    }
+
+    /**
+     * Recorre los elementos en una transacción, vaciando la sesión cada TAMANIO_LOTE filas
+     */
+    private <T> int cargar(List<T> elementos, String descripcion, BiConsumer<Session, T> insertar) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+
+            int cantidad = 0;
+            for (T elemento : elementos) {
+                insertar.accept(session, elemento);
+                if (++cantidad % TAMANIO_LOTE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+
+            transaction.commit();
+            return cantidad;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw new RuntimeException("Error en la carga masiva de " + descripcion + ": " + e.getMessage(), e);
+        }
+    }
+
+    private Integer idTipoEstado(EstadoHab estado) {
+        TipoEstado tipo = CatalogoCache.getInstancia().tipoEstado(estado);
+        if (tipo == null) {
+            throw new IllegalStateException("No existe el tipo estado " + estado + " en el catálogo");
+        }
+        return tipo.getId();
+    }
+}
@@ -0,0 +1,35 @@
+package ar.utn.hotel.services;
+
+import ar.utn.hotel.dto.ResultadoCompactacionDTO;
+import ar.utn.hotel.gestor.GestorHabitacion;
+
+/**
+ * Proceso batch que compacta el historial de estados de habitación.
+ * Fusiona intervalos contiguos del mismo estado y archiva los intervalos cerrados
+ * más viejos que el horizonte, así la carga de una habitación con sus estados
+ * solo trae la ventana reciente.
+ *
+ * Uso: CompactadorEstados [diasHorizonte]
+ * El horizonte también puede fijarse con -Dhotel.estados.horizonte.dias (por defecto 180).
+ */
+public class CompactadorEstados {
+
+    public static final String PROPIEDAD_HORIZONTE = "hotel.estados.horizonte.dias";
+    private static final int HORIZONTE_POR_DEFECTO = 180;
+
+    public static void main(String[] args) {
+        int diasHorizonte = args.length > 0
+                ? Integer.parseInt(args[0])
+                : Integer.getInteger(PROPIEDAD_HORIZONTE, HORIZONTE_POR_DEFECTO);
+
+        System.out.println("🏨 HOTEL PREMIER - Compactación de estados de habitación");
+        System.out.println("Horizonte: " + diasHorizonte + " días\n");
+
+        ResultadoCompactacionDTO resultado = new GestorHabitacion().compactarHistorialEstados(diasHorizonte);
+
+        System.out.println("✓ Habitaciones recorridas: " + resultado.getHabitaciones());
+        System.out.println("✓ Intervalos fusionados: " + resultado.getFusionados());
+        System.out.println("✓ Intervalos archivados: " + resultado.getArchivados());
+        System.out.println("\n✅ Compactación finalizada");
+    }
+}
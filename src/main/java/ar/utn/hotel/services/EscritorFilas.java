@@ -0,0 +1,175 @@
+package ar.utn.hotel.services;
+
+import enums.FormatoExportacion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Serializa filas en CSV o JSON sobre un canal. Cada fila se codifica en un buffer
+ * de tamaño fijo que se vuelca al canal cuando se llena, así la memoria usada no
+ * depende de la cantidad de filas exportadas.
+ */
+class EscritorFilas implements AutoCloseable {
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+
+    private final WritableByteChannel canal;
+    private final FormatoExportacion formato;
+    private final List<String> columnas;
+    private final ByteBuffer buffer = ByteBuffer.allocate(TAMANIO_BUFFER);
+    private final StringBuilder linea = new StringBuilder();
+    private long filas;
+
+    EscritorFilas(WritableByteChannel canal, FormatoExportacion formato, List<String> columnas) {
+        this.canal = canal;
+        this.formato = formato;
+        this.columnas = columnas;
+
+        if (formato == FormatoExportacion.CSV) {
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    linea.append(',');
+                }
+                agregarCsv(columnas.get(i));
+            }
+            linea.append('\n');
+        } else {
+            linea.append('[');
+        }
+        volcarLinea();
+    }
+
+    /**
+     * Escribe una fila con un valor por columna, en el mismo orden que las columnas
+     */
+    void escribir(List<Object> valores) {
+        if (formato == FormatoExportacion.CSV) {
+            for (int i = 0; i < valores.size(); i++) {
+                if (i > 0) {
+                    linea.append(',');
+                }
+                Object valor = valores.get(i);
+                if (valor != null) {
+                    agregarCsv(valor.toString());
+                }
+            }
+            linea.append('\n');
+        } else {
+            linea.append(filas > 0 ? ",\n{" : "\n{");
+            for (int i = 0; i < valores.size(); i++) {
+                if (i > 0) {
+                    linea.append(',');
+                }
+                agregarJson(columnas.get(i));
+                linea.append(':');
+                Object valor = valores.get(i);
+                if (valor == null) {
+                    linea.append("null");
+                } else if (valor instanceof Number || valor instanceof Boolean) {
+                    linea.append(valor);
+                } else {
+                    agregarJson(valor.toString());
+                }
+            }
+            linea.append('}');
+        }
+        volcarLinea();
+        filas++;
+    }
+
+    long getFilas() {
+        return filas;
+    }
+
+    /**
+     * Cierra el documento y vuelca lo pendiente. No cierra el canal: es de quien lo abrió.
+     */
+    @Override
+    public void close() {
+        if (formato == FormatoExportacion.JSON) {
+            linea.append(filas > 0 ? "\n]\n" : "]\n");
+            volcarLinea();
+        }
+        vaciarBuffer();
+    }
+
+    // ========== CODIFICACIÓN ==========
+
+    private void agregarCsv(String valor) {
+        boolean comillas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+        if (!comillas) {
+            linea.append(valor);
+            return;
+        }
+        linea.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                linea.append('"');
+            }
+            linea.append(c);
+        }
+        linea.append('"');
+    }
+
+    private void agregarJson(String valor) {
+        linea.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> linea.append("\\\"");
+                case '\\' -> linea.append("\\\\");
+                case '\n' -> linea.append("\\n");
+                case '\r' -> linea.append("\\r");
+                case '\t' -> linea.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        linea.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        linea.append(c);
+                    }
+                }
+            }
+        }
+        linea.append('"');
+    }
+
+    // ========== SALIDA ==========
+
+    private void volcarLinea() {
+        byte[] bytes = linea.toString().getBytes(StandardCharsets.UTF_8);
+        linea.setLength(0);
+
+        if (bytes.length > buffer.remaining()) {
+            vaciarBuffer();
+        }
+        if (bytes.length > buffer.capacity()) {
+            // Una fila más grande que el buffer se escribe directo
+            escribirCompleto(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private void vaciarBuffer() {
+        buffer.flip();
+        escribirCompleto(buffer);
+        buffer.clear();
+    }
+
+    private void escribirCompleto(ByteBuffer datos) {
+        try {
+            while (datos.hasRemaining()) {
+                canal.write(datos);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al escribir en el canal de exportación", e);
+        }
+    }
+}
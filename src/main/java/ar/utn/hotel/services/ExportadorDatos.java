@@ -0,0 +1,165 @@
+package ar.utn.hotel.services;
+
+import ar.utn.hotel.dao.implement.EstadiaDAOImpl;
+import ar.utn.hotel.dao.implement.HuespedDAOImpl;
+import ar.utn.hotel.dao.implement.ReservaDAOImpl;
+import ar.utn.hotel.dao.implement.TipoEstadoDAOImpl;
+import ar.utn.hotel.dao.interfaces.EstadiaDAO;
+import ar.utn.hotel.dao.interfaces.HuespedDAO;
+import ar.utn.hotel.dao.interfaces.ReservaDAO;
+import ar.utn.hotel.dto.EstadiaDTO;
+import ar.utn.hotel.dto.HuespedDTO;
+import ar.utn.hotel.dto.ReservaDTO;
+import enums.FormatoExportacion;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Exporta huéspedes, reservas y estadías completos en CSV o JSON.
+ * Las filas se leen de la base con un cursor y se escriben en el canal a medida
+ * que llegan, así la memoria usada es la misma sin importar el tamaño de la tabla.
+ *
+ * Uso: ExportadorDatos <huespedes|reservas|estadias> <csv|json> [archivo]
+ */
+public class ExportadorDatos {
+
+    private static final List<Columna<HuespedDTO>> COLUMNAS_HUESPED = List.of(
+            new Columna<>("id", HuespedDTO::getId),
+            new Columna<>("nombre", HuespedDTO::getNombre),
+            new Columna<>("apellido", HuespedDTO::getApellido),
+            new Columna<>("tipoDocumento", HuespedDTO::getTipoDocumento),
+            new Columna<>("numeroDocumento", HuespedDTO::getNumeroDocumento),
+            new Columna<>("telefono", HuespedDTO::getTelefono),
+            new Columna<>("email", HuespedDTO::getEmail),
+            new Columna<>("cuit", HuespedDTO::getCuit),
+            new Columna<>("posicionIVA", HuespedDTO::getPosicionIVA),
+            new Columna<>("fechaNacimiento", HuespedDTO::getFechaNacimiento),
+            new Columna<>("ocupacion", HuespedDTO::getOcupacion),
+            new Columna<>("nacionalidad", HuespedDTO::getNacionalidad),
+            new Columna<>("idDireccion", HuespedDTO::getIdDireccion)
+    );
+
+    private static final List<Columna<ReservaDTO>> COLUMNAS_RESERVA = List.of(
+            new Columna<>("id", ReservaDTO::getId),
+            new Columna<>("idHuesped", ReservaDTO::getIdHuesped),
+            new Columna<>("nombreHuesped", ReservaDTO::getNombreHuesped),
+            new Columna<>("apellidoHuesped", ReservaDTO::getApellidoHuesped),
+            new Columna<>("telefonoHuesped", ReservaDTO::getTelefonoHuesped),
+            new Columna<>("numeroHabitacion", ReservaDTO::getNumeroHabitacion),
+            new Columna<>("fechaInicio", ReservaDTO::getFechaInicio),
+            new Columna<>("fechaFin", ReservaDTO::getFechaFin),
+            new Columna<>("cantHuespedes", ReservaDTO::getCantHuespedes),
+            new Columna<>("descuento", ReservaDTO::getDescuento),
+            new Columna<>("tieneEstadia", ReservaDTO::getTieneEstadia)
+    );
+
+    private static final List<Columna<EstadiaDTO>> COLUMNAS_ESTADIA = List.of(
+            new Columna<>("idEstadia", EstadiaDTO::getIdEstadia),
+            new Columna<>("idReserva", EstadiaDTO::getIdReserva),
+            new Columna<>("numeroHabitacion", EstadiaDTO::getNumeroHabitacion),
+            new Columna<>("nombreHuesped", EstadiaDTO::getNombreHuesped),
+            new Columna<>("apellidoHuesped", EstadiaDTO::getApellidoHuesped),
+            new Columna<>("fechaInicio", EstadiaDTO::getFechaInicio),
+            new Columna<>("fechaFin", EstadiaDTO::getFechaFin),
+            new Columna<>("horaCheckIn", EstadiaDTO::getHoraCheckIn),
+            new Columna<>("horaCheckOut", EstadiaDTO::getHoraCheckOut)
+    );
+
+    private final HuespedDAO huespedDAO;
+    private final ReservaDAO reservaDAO;
+    private final EstadiaDAO estadiaDAO;
+
+    public ExportadorDatos(HuespedDAO huespedDAO, ReservaDAO reservaDAO, EstadiaDAO estadiaDAO) {
+        this.huespedDAO = huespedDAO;
+        this.reservaDAO = reservaDAO;
+        this.estadiaDAO = estadiaDAO;
+    }
+
+    public ExportadorDatos() {
+        this.huespedDAO = new HuespedDAOImpl();
+        this.reservaDAO = new ReservaDAOImpl(new TipoEstadoDAOImpl());
+        this.estadiaDAO = new EstadiaDAOImpl();
+    }
+
+    /**
+     * Exporta todos los huéspedes. Devuelve la cantidad de filas escritas.
+     */
+    public long exportarHuespedes(WritableByteChannel canal, FormatoExportacion formato) {
+        return exportar("huéspedes", canal, formato, COLUMNAS_HUESPED, huespedDAO::recorrerTodos);
+    }
+
+    /**
+     * Exporta todas las reservas. Devuelve la cantidad de filas escritas.
+     */
+    public long exportarReservas(WritableByteChannel canal, FormatoExportacion formato) {
+        return exportar("reservas", canal, formato, COLUMNAS_RESERVA, reservaDAO::recorrerTodas);
+    }
+
+    /**
+     * Exporta todas las estadías. Devuelve la cantidad de filas escritas.
+     */
+    public long exportarEstadias(WritableByteChannel canal, FormatoExportacion formato) {
+        return exportar("estadías", canal, formato, COLUMNAS_ESTADIA, estadiaDAO::recorrerTodas);
+    }
+
+    private <T> long exportar(String descripcion,
+                              WritableByteChannel canal,
+                              FormatoExportacion formato,
+                              List<Columna<T>> columnas,
+                              Function<Consumer<T>, Long> origen) {
+        List<String> nombres = columnas.stream().map(Columna::nombre).toList();
+
+        try (EscritorFilas escritor = new EscritorFilas(canal, formato, nombres)) {
+            origen.apply(dto -> {
+                List<Object> valores = new ArrayList<>(columnas.size());
+                for (Columna<T> columna : columnas) {
+                    valores.add(columna.valor().apply(dto));
+                }
+                escritor.escribir(valores);
+            });
+            return escritor.getFilas();
+        } catch (Exception e) {
+            throw new RuntimeException("Error al exportar " + descripcion + ": " + e.getMessage(), e);
+        }
+    }
+
+    private record Columna<T>(String nombre, Function<T, Object> valor) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: ExportadorDatos <huespedes|reservas|estadias> <csv|json> [archivo]");
+            return;
+        }
+
+        String tabla = args[0].toLowerCase(Locale.ROOT);
+        FormatoExportacion formato = FormatoExportacion.valueOf(args[1].toUpperCase(Locale.ROOT));
+        Path archivo = Path.of(args.length > 2 ? args[2] : tabla + "." + formato.getExtension());
+
+        ExportadorDatos exportador = new ExportadorDatos();
+        long inicio = System.currentTimeMillis();
+        long filas;
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            filas = switch (tabla) {
+                case "huespedes" -> exportador.exportarHuespedes(canal, formato);
+                case "reservas" -> exportador.exportarReservas(canal, formato);
+                case "estadias" -> exportador.exportarEstadias(canal, formato);
+                default -> throw new IllegalArgumentException("Tabla desconocida: " + tabla);
+            };
+        }
+
+        System.out.println("✓ " + filas + " filas exportadas a " + archivo.toAbsolutePath()
+                + " en " + (System.currentTimeMillis() - inicio) + " ms");
+    }
+}
@@ -86,6 +86,18 @@ public class InicializadorDatos {
         }
     }
 
+    /**
+     * Siembra la base sólo si todavía no tiene tipos de habitación (base recién creada).
+     * Devuelve true si se cargaron datos.
+     */
+    public boolean inicializarSiVacia() {
+        if (!gestorHabitacion.listarTiposHabitacion().isEmpty()) {
+            return false;
+        }
+        inicializar();
+        return true;
+    }
+
     /**
      * Inicializa el catálogo de estados usando GestorHabitacion
      */
@@ -457,7 +469,8 @@ public class InicializadorDatos {
     }
 
     /**
-     * Método main para ejecutar la inicialización
+     * Método main para ejecutar la inicialización.
+     * Con -Dhotel.perfil=local siembra la base local en lugar de la remota.
      */
     public static void main(String[] args) {
         System.out.println("🏨 HOTEL PREMIER - Inicializador de Datos");
@@ -0,0 +1,42 @@
+package ar.utn.hotel.services;
+
+import ar.utn.hotel.gestor.GestorHabitacion;
+
+import java.time.LocalDate;
+
+/**
+ * Proceso batch que regenera la tabla ocupacion_diaria a partir de estado_habitacion.
+ * Se usa para la carga inicial y para reparar la foto si quedó desfasada.
+ *
+ * Uso: RegeneradorOcupacionDiaria [desde] [hasta]   (fechas ISO, por defecto el último año hasta hoy)
+ */
+public class RegeneradorOcupacionDiaria {
+
+    // Tamaño de cada tramo regenerado en una transacción, para no bloquear la tabla entera
+    private static final int DIAS_POR_TRAMO = 31;
+
+    public static void main(String[] args) {
+        LocalDate desde = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.now().minusYears(1);
+        LocalDate hasta = args.length > 1 ? LocalDate.parse(args[1]) : LocalDate.now();
+
+        System.out.println("🏨 HOTEL PREMIER - Regeneración de ocupación diaria");
+        System.out.println("Rango: " + desde + " a " + hasta + "\n");
+
+        GestorHabitacion gestorHabitacion = new GestorHabitacion();
+
+        LocalDate inicioTramo = desde;
+        while (!inicioTramo.isAfter(hasta)) {
+            LocalDate finTramo = inicioTramo.plusDays(DIAS_POR_TRAMO - 1);
+            if (finTramo.isAfter(hasta)) {
+                finTramo = hasta;
+            }
+
+            gestorHabitacion.regenerarOcupacionDiaria(inicioTramo, finTramo);
+            System.out.println("✓ " + inicioTramo + " - " + finTramo);
+
+            inicioTramo = finTramo.plusDays(1);
+        }
+
+        System.out.println("\n✅ Ocupación diaria regenerada");
+    }
+}
@@ -2,18 +2,16 @@ package controllers.BuscarHuesped;
 
 import ar.utn.hotel.HotelPremier;
 import ar.utn.hotel.dto.HuespedDTO;
-import ar.utn.hotel.gestor.GestorHuesped;
-import ar.utn.hotel.model.Huesped;
+import ar.utn.hotel.gestor.GestorHuespedAsincrono;
 import controllers.PopUp.PopUpController;
 import enums.PopUpType;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextField;
 import utils.DataTransfer;
+import utils.HiloFx;
 
 import static utils.TextManager.*;
 
-import java.util.List;
-
 public class BuscarHuespedController1 {
 
     @FXML
@@ -23,6 +21,8 @@ public class BuscarHuespedController1 {
     @FXML
     private TextField txtNumeroDocumento;
 
+    private final GestorHuespedAsincrono gestorHuesped = new GestorHuespedAsincrono();
+
     public void initialize() {
         configurarFormatoDeTexto();
     }
@@ -88,10 +88,8 @@ public class BuscarHuespedController1 {
     }
 
     private void realizarBusqueda(HuespedDTO dto) {
-        try {
-            GestorHuesped gestor = new GestorHuesped();
-            List<Huesped> resultados = gestor.buscarHuesped(dto);
-
+        // La consulta corre fuera del hilo de JavaFX; el resultado vuelve a él para tocar la interfaz
+        HiloFx.alTerminar(gestorHuesped.buscarHuesped(dto), resultados -> {
             if (resultados == null || resultados.isEmpty()) {
                 PopUpController.mostrarPopUp(
                         PopUpType.WARNING,
@@ -103,13 +101,10 @@ public class BuscarHuespedController1 {
             DataTransfer.setHuespedesEnBusqueda(resultados);
             HotelPremier.cambiarA("buscar_huesped2");
             mostrarPopUpExito(resultados.size());
-
-        } catch (Exception e) {
-            PopUpController.mostrarPopUp(
-                    PopUpType.ERROR,
-                    "Error al buscar huésped: " + e.getMessage()
-            );
-        }
+        }, error -> PopUpController.mostrarPopUp(
+                PopUpType.ERROR,
+                "Error al buscar huésped: " + error.getMessage()
+        ));
     }
 
     private void mostrarPopUpExito(int cantidad) {
@@ -1,7 +1,7 @@
 package controllers.BuscarHuesped;
 
 import ar.utn.hotel.HotelPremier;
-import ar.utn.hotel.model.Huesped;
+import ar.utn.hotel.dto.HuespedDTO;
 import controllers.PopUp.PopUpController;
 import enums.PopUpType;
 import javafx.collections.FXCollections;
@@ -24,8 +24,8 @@ public class BuscarHuespedController2 {
     @FXML private Button btnCancelar;
     @FXML private Button btnSiguiente;
 
-    private Huesped huespedSeleccionado;
-    private ObservableList<Huesped> listaHuespedes;
+    private HuespedDTO huespedSeleccionado;
+    private ObservableList<HuespedDTO> listaHuespedes;
     private GridPane filaSeleccionada;
 
     public void initialize() {
@@ -35,7 +35,7 @@ public class BuscarHuespedController2 {
     }
 
     private void cargarHuespedesDesdeTransfer() {
-        List<Huesped> huespedes = DataTransfer.getHuespedesEnBusqueda();
+        List<HuespedDTO> huespedes = DataTransfer.getHuespedesEnBusqueda();
 
         if (huespedes != null) {
             listaHuespedes = FXCollections.observableArrayList(huespedes);
@@ -53,13 +53,13 @@ public class BuscarHuespedController2 {
             return;
         }
 
-        for (Huesped huesped : listaHuespedes) {
+        for (HuespedDTO huesped : listaHuespedes) {
             GridPane filaHuesped = crearFilaHuesped(huesped);
             containerHuespedes.getChildren().add(filaHuesped);
         }
     }
 
-    private GridPane crearFilaHuesped(Huesped huesped) {
+    private GridPane crearFilaHuesped(HuespedDTO huesped) {
         GridPane gridRow = new GridPane();
         gridRow.setPrefHeight(50.0);
         gridRow.setMinHeight(50.0);
@@ -136,7 +136,7 @@ public class BuscarHuespedController2 {
         return gridRow;
     }
 
-    private void seleccionarFila(GridPane fila, Huesped huesped) {
+    private void seleccionarFila(GridPane fila, HuespedDTO huesped) {
         if (filaSeleccionada != null) {
             filaSeleccionada.setStyle("-fx-background-color: #fdfaf2; -fx-border-color: #e8dcc4; -fx-border-width: 0 0 1 0;");
             filaSeleccionada.getChildren().forEach(node -> {
@@ -1,6 +1,7 @@
 package controllers.EstadoHabitaciones;
 
 import ar.utn.hotel.HotelPremier;
+import ar.utn.hotel.disponibilidad.MatrizOcupacion;
 import ar.utn.hotel.dto.HabitacionReservaDTO;
 import ar.utn.hotel.gestor.GestorHabitacion;
 import ar.utn.hotel.gestor.GestorReserva;
@@ -11,6 +12,7 @@ import enums.ContextoEstadoHabitaciones;
 import enums.EstadoHab;
 import enums.PopUpType;
 import enums.TipoHabitacion;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -32,7 +34,8 @@ public class EstadoHabitacionesController2 {
     @FXML private Label lbFechaDesde;
     @FXML private Label lbFechaHasta;
     @FXML private Label lblTitulo;
-    private Map<String, EstadoHab> cacheEstados;
+    @FXML private ProgressIndicator indicadorCarga;
+    private MatrizOcupacion matrizEstados;
 
     private GridPane gridTodasHabitaciones, gridIndividualEstandar, gridDobleEstandar,
             gridDobleSuperior, gridSuperiorFamily, gridSuiteDoble;
@@ -52,12 +55,13 @@ public class EstadoHabitacionesController2 {
     private Set<CeldaSeleccionada> celdasSeleccionadas;
     private CeldaSeleccionada ultimaCeldaClickeada;
     private Map<String, StackPane> mapaCeldas;
+    private ServicioCargaEstados servicioCarga;
+    private final Map<Tab, Runnable> grillasPendientes = new LinkedHashMap<>();
 
     @FXML
     public void initialize() {
         mapaCeldas = new HashMap<>();
         celdasSeleccionadas = new HashSet<>();
-        cacheEstados = new HashMap<>();
         gestorHabitacion = new GestorHabitacion();
         gestorReserva = new GestorReserva();
         gestorReserva.setGestorHabitacion(gestorHabitacion);
@@ -79,8 +83,10 @@ public class EstadoHabitacionesController2 {
         configurarSegunContexto();
         inicializarTabs();
         cargarDatosReales();
-        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) ->
-                refrescarEstilosSeleccionados());
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, oldTab, newTab) -> {
+            cargarGrillaPendiente(newTab);
+            refrescarEstilosSeleccionados();
+        });
     }
 
     private void configurarSegunContexto() {
@@ -166,25 +172,71 @@ public class EstadoHabitacionesController2 {
     }
 
     private void cargarDatosReales() {
-        todasLasHabitaciones = gestorHabitacion.listarTodasHabitaciones();
-        if (todasLasHabitaciones.isEmpty()) {
+        // Hasta que lleguen los datos la grilla queda vacía y los clics no encuentran habitaciones
+        todasLasHabitaciones = List.of();
+
+        servicioCarga = new ServicioCargaEstados(gestorHabitacion, fechaInicio, fechaFin);
+        indicadorCarga.progressProperty().bind(servicioCarga.progressProperty());
+        indicadorCarga.visibleProperty().bind(servicioCarga.runningProperty());
+        btnConfirmar.disableProperty().bind(servicioCarga.runningProperty());
+
+        servicioCarga.setOnSucceeded(e -> mostrarDatos(servicioCarga.getValue()));
+        servicioCarga.setOnFailed(e -> mostrarError(
+                "Error al cargar el estado de las habitaciones: " + servicioCarga.getException().getMessage()));
+        servicioCarga.start();
+    }
+
+    private void mostrarDatos(ServicioCargaEstados.Resultado resultado) {
+        if (resultado.habitaciones().isEmpty()) {
             mostrarError("No hay habitaciones registradas en el sistema");
             return;
         }
+        todasLasHabitaciones = resultado.habitaciones();
+        matrizEstados = resultado.matriz();
 
-        List<Integer> numerosHab = todasLasHabitaciones.stream()
-                .map(Habitacion::getNumero)
-                .collect(Collectors.toList());
+        // Ahora cargar las grillas (ya no hacen consultas individuales)
+        Tab[] tabs = tabPane.getTabs().toArray(new Tab[0]);
+        grillasPendientes.clear();
+        grillasPendientes.put(tabs[0], () -> cargarGrilla(gridTodasHabitaciones, fechaInicio, fechaFin, todasLasHabitaciones));
+        grillasPendientes.put(tabs[1], () -> cargarGrillaPorTipo(gridIndividualEstandar, TipoHabitacion.INDIVIDUAL_ESTÁNDAR));
+        grillasPendientes.put(tabs[2], () -> cargarGrillaPorTipo(gridDobleEstandar, TipoHabitacion.DOBLE_ESTÁNDAR));
+        grillasPendientes.put(tabs[3], () -> cargarGrillaPorTipo(gridDobleSuperior, TipoHabitacion.DOBLE_SUPERIOR));
+        grillasPendientes.put(tabs[4], () -> cargarGrillaPorTipo(gridSuperiorFamily, TipoHabitacion.SUPERIOR_FAMILY_PLAN));
+        grillasPendientes.put(tabs[5], () -> cargarGrillaPorTipo(gridSuiteDoble, TipoHabitacion.SUITE_DOBLE));
+
+        // Primero la pestaña visible; las demás de a una por pulso para no trabar la interfaz
+        cargarGrillaPendiente(tabPane.getSelectionModel().getSelectedItem());
+        cargarSiguienteGrilla();
+    }
 
-        cacheEstados = gestorHabitacion.obtenerEstadosEnRango(numerosHab, fechaInicio, fechaFin);
+    private void cargarSiguienteGrilla() {
+        if (grillasPendientes.isEmpty()) {
+            return;
+        }
+        Platform.runLater(() -> {
+            Iterator<Tab> pendientes = grillasPendientes.keySet().iterator();
+            if (pendientes.hasNext()) {
+                cargarGrillaPendiente(pendientes.next());
+                cargarSiguienteGrilla();
+            }
+        });
+    }
 
-        // Ahora cargar las grillas (ya no hacen consultas individuales)
-        cargarGrilla(gridTodasHabitaciones, fechaInicio, fechaFin, todasLasHabitaciones);
-        cargarGrillaPorTipo(gridIndividualEstandar, TipoHabitacion.INDIVIDUAL_ESTÁNDAR);
-        cargarGrillaPorTipo(gridDobleEstandar, TipoHabitacion.DOBLE_ESTÁNDAR);
-        cargarGrillaPorTipo(gridDobleSuperior, TipoHabitacion.DOBLE_SUPERIOR);
-        cargarGrillaPorTipo(gridSuperiorFamily, TipoHabitacion.SUPERIOR_FAMILY_PLAN);
-        cargarGrillaPorTipo(gridSuiteDoble, TipoHabitacion.SUITE_DOBLE);
+    private void cargarGrillaPendiente(Tab tab) {
+        Runnable carga = grillasPendientes.remove(tab);
+        if (carga != null) {
+            carga.run();
+        }
+    }
+
+    /**
+     * Corta la consulta en curso y descarta las grillas que faltaban armar
+     */
+    private void detenerCarga() {
+        if (servicioCarga != null) {
+            servicioCarga.cancel();
+        }
+        grillasPendientes.clear();
     }
 
 
@@ -269,8 +321,10 @@ public class EstadoHabitacionesController2 {
      * usando el nuevo modelo EstadoHabitacion -> TipoEstado
      */
     private EstadoHab obtenerEstadoHabitacion(Habitacion habitacion, LocalDate fecha) {
-        String clave = habitacion.getNumero() + "_" + fecha;
-        return cacheEstados.getOrDefault(clave, EstadoHab.DISPONIBLE);
+        if (matrizEstados == null) {
+            return EstadoHab.DISPONIBLE;
+        }
+        return matrizEstados.getEstado(habitacion.getNumero(), fecha);
     }
 
     private StackPane crearCeldaEncabezado(String texto) {
@@ -343,8 +397,8 @@ public class EstadoHabitacionesController2 {
         }
     }
 
-    @FXML private void onCancelarClicked() { DataTransfer.limpiar(); HotelPremier.cambiarA("menu"); }
-    @FXML private void onVovlerClicked() { HotelPremier.cambiarA("estado_habs1"); }
+    @FXML private void onCancelarClicked() { detenerCarga(); DataTransfer.limpiar(); HotelPremier.cambiarA("menu"); }
+    @FXML private void onVovlerClicked() { detenerCarga(); HotelPremier.cambiarA("estado_habs1"); }
 
     @FXML
     private void onConfirmarClicked() {
@@ -394,6 +448,7 @@ public class EstadoHabitacionesController2 {
 
         habitacionesDTO.sort(Comparator.comparing(HabitacionReservaDTO::getNumeroHabitacion));
         DataTransfer.setHabitacionesSeleccionadas(habitacionesDTO);
+        detenerCarga();
         HotelPremier.cambiarA("reservar_hab1");
     }
 
@@ -443,7 +498,13 @@ public class EstadoHabitacionesController2 {
     }
 
     private Reserva buscarReservaPorHabitacionYFecha(Integer numeroHabitacion, LocalDate fecha) {
-        return gestorReserva.buscarReservaPorHabitacionYFecha(numeroHabitacion, fecha);
+        try {
+            return gestorReserva.buscarReservaPorHabitacionYFecha(numeroHabitacion, fecha);
+        } catch (Exception e) {
+            // La advertencia se muestra igual, sin los datos de la reserva
+            System.err.println("Error al buscar reserva: " + e.getMessage());
+            return null;
+        }
     }
 
     private void prepararYProcesarOcupacion() {
@@ -482,6 +543,7 @@ public class EstadoHabitacionesController2 {
 
         habitacionesDTO.sort(Comparator.comparing(HabitacionReservaDTO::getNumeroHabitacion));
         DataTransfer.setHabitacionesSeleccionadas(habitacionesDTO);
+        detenerCarga();
         HotelPremier.cambiarA("ocupar_hab1");
     }
 
@@ -0,0 +1,78 @@
+package controllers.EstadoHabitaciones;
+
+import ar.utn.hotel.disponibilidad.MatrizOcupacion;
+import ar.utn.hotel.gestor.GestorHabitacion;
+import ar.utn.hotel.model.Habitacion;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import utils.EjecutorGestores;
+import utils.UnidadDeTrabajo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Carga en segundo plano las habitaciones y la matriz de estados del rango pedido.
+ *
+ * Las dos consultas corren en una misma unidad de trabajo, así cancel() puede cortar
+ * la que esté en curso en la base en lugar de esperar a que termine. El hilo no se
+ * interrumpe: la conexión vuelve sana al pool.
+ */
+class ServicioCargaEstados extends Service<ServicioCargaEstados.Resultado> {
+
+    private static final int PASOS = 2;
+
+    record Resultado(List<Habitacion> habitaciones, MatrizOcupacion matriz) {
+    }
+
+    private final GestorHabitacion gestorHabitacion;
+    private final LocalDate fechaInicio;
+    private final LocalDate fechaFin;
+
+    ServicioCargaEstados(GestorHabitacion gestorHabitacion, LocalDate fechaInicio, LocalDate fechaFin) {
+        this.gestorHabitacion = gestorHabitacion;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        setExecutor(EjecutorGestores.getEjecutor());
+    }
+
+    @Override
+    protected Task<Resultado> createTask() {
+        return new Task<>() {
+
+            private volatile Runnable cancelador = () -> {
+            };
+
+            @Override
+            protected Resultado call() {
+                return UnidadDeTrabajo.ejecutar(() -> {
+                    cancelador = UnidadDeTrabajo.canceladorDeConsultas();
+
+                    updateMessage("Cargando habitaciones...");
+                    updateProgress(0, PASOS);
+                    List<Habitacion> habitaciones = gestorHabitacion.listarTodasHabitaciones();
+                    if (isCancelled() || habitaciones.isEmpty()) {
+                        return new Resultado(habitaciones, null);
+                    }
+
+                    updateMessage("Cargando estados...");
+                    updateProgress(1, PASOS);
+                    List<Integer> numerosHab = habitaciones.stream()
+                            .map(Habitacion::getNumero)
+                            .toList();
+                    MatrizOcupacion matriz = gestorHabitacion.obtenerEstadosEnRango(numerosHab, fechaInicio, fechaFin);
+
+                    updateProgress(PASOS, PASOS);
+                    return new Resultado(habitaciones, matriz);
+                });
+            }
+
+            @Override
+            public boolean cancel(boolean interrumpir) {
+                boolean cancelada = super.cancel(false);
+                cancelador.run();
+                return cancelada;
+            }
+        };
+    }
+}
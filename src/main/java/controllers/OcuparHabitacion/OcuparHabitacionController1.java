@@ -3,7 +3,6 @@ package controllers.OcuparHabitacion;
 import ar.utn.hotel.HotelPremier;
 import ar.utn.hotel.dto.HuespedDTO;
 import ar.utn.hotel.gestor.GestorHuesped;
-import ar.utn.hotel.model.Huesped;
 import controllers.PopUp.PopUpController;
 import enums.PopUpType;
 import javafx.event.ActionEvent;
@@ -90,7 +89,7 @@ public class OcuparHabitacionController1 {
             HuespedDTO dto = builder.build();
 
             // Buscar huéspedes usando el gestor
-            List<Huesped> huespedes = gestorHuesped.buscarHuesped(dto);
+            List<HuespedDTO> huespedes = gestorHuesped.buscarHuespedDTO(dto);
 
             if (huespedes == null || huespedes.isEmpty()) {
                 PopUpController.mostrarPopUp(
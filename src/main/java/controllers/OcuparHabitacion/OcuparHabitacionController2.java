@@ -3,11 +3,10 @@ package controllers.OcuparHabitacion;
 import ar.utn.hotel.HotelPremier;
 import ar.utn.hotel.dto.CrearReservaDTO;
 import ar.utn.hotel.dto.HabitacionReservaDTO;
-import ar.utn.hotel.dto.ReservaDTO;
+import ar.utn.hotel.dto.HuespedDTO;
 import ar.utn.hotel.gestor.GestorHabitacion;
 import ar.utn.hotel.gestor.GestorReserva;
-import ar.utn.hotel.model.Huesped;
-import ar.utn.hotel.model.Reserva;
+import ar.utn.hotel.gestor.GestorReservaAsincrono;
 import controllers.PopUp.PopUpController;
 import enums.PopUpType;
 import javafx.event.ActionEvent;
@@ -19,6 +18,7 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.RowConstraints;
 import javafx.scene.Cursor;
 import utils.DataTransfer;
+import utils.HiloFx;
 
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -31,8 +31,8 @@ public class OcuparHabitacionController2 {
 
     private GestorHabitacion gestorHabitacion;
     private GestorReserva gestorReserva;
-    private List<Huesped> huespedesEncontrados;
-    private Huesped huespedSeleccionado;
+    private List<HuespedDTO> huespedesEncontrados;
+    private HuespedDTO huespedSeleccionado;
     private List<HabitacionReservaDTO> habitacionesSeleccionadas;
 
     @FXML
@@ -77,7 +77,7 @@ public class OcuparHabitacionController2 {
 
         int fila = 1;
 
-        for (Huesped huesped : huespedesEncontrados) {
+        for (HuespedDTO huesped : huespedesEncontrados) {
             RowConstraints row = new RowConstraints();
             row.setMinHeight(50.0);
             row.setPrefHeight(50.0);
@@ -126,7 +126,7 @@ public class OcuparHabitacionController2 {
         return label;
     }
 
-    private void seleccionarHuesped(Huesped huesped) {
+    private void seleccionarHuesped(HuespedDTO huesped) {
         huespedSeleccionado = huesped;
         btnAceptar.setDisable(false);
 
@@ -192,68 +192,38 @@ public class OcuparHabitacionController2 {
     }
 
     private void procesarOcupacion() {
-        try {
-            List<Long> reservasCreadas = new ArrayList<>();
-
-            // Por cada habitación seleccionada, procesar la ocupación
-            for (HabitacionReservaDTO hab : habitacionesSeleccionadas) {
-                // 1. Buscar si existe una reserva para esta habitación en estas fechas
-                Reserva reservaExistente = gestorReserva.buscarReservaPorHabitacionYFecha(
-                        hab.getNumeroHabitacion(),
-                        hab.getFechaIngreso()
-                );
-
-                Long idReserva;
-
-                if (reservaExistente == null) {
-                    // NO existe reserva: Crear reserva primero
-                    CrearReservaDTO dtoReserva = CrearReservaDTO.builder()
-                            .idHuesped(huespedSeleccionado.getId())
-                            .numeroHabitacion(hab.getNumeroHabitacion())
-                            .fechaInicio(hab.getFechaIngreso())
-                            .fechaFin(hab.getFechaEgreso())
-                            .cantHuespedes(1) // Por defecto 1
-                            .descuento(0.0)
-                            .build();
-
-                    ReservaDTO reserva = gestorReserva.crearReserva(dtoReserva);
-                    idReserva = reserva.getId();
-
-                    // Delay entre operaciones
-                    try {
-                        Thread.sleep(100);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
-                } else {
-                    // Ya existe reserva
-                    idReserva = reservaExistente.getId();
-                }
-
-                reservasCreadas.add(idReserva);
-            }
-
-            // 2. Hacer check-in en todas las reservas (crear estadías)
-            for (Long idReserva : reservasCreadas) {
-                gestorHabitacion.realizarCheckIn(idReserva);
-
-                // Delay entre operaciones
-                try {
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }
-
-            mostrarExito();
+        // Una reserva por habitación seleccionada; si la habitación ya tiene una reserva
+        // para esa fecha se usa esa. Reservas y check-in se graban juntos o no se graba nada.
+        List<CrearReservaDTO> dtosReservas = new ArrayList<>();
+        for (HabitacionReservaDTO hab : habitacionesSeleccionadas) {
+            dtosReservas.add(CrearReservaDTO.builder()
+                    .idHuesped(huespedSeleccionado.getId())
+                    .numeroHabitacion(hab.getNumeroHabitacion())
+                    .fechaInicio(hab.getFechaIngreso())
+                    .fechaFin(hab.getFechaEgreso())
+                    .cantHuespedes(1) // Por defecto 1
+                    .descuento(0.0)
+                    .build());
+        }
 
-        } catch (Exception e) {
+        // Hasta que termine no se puede volver a confirmar ni cambiar de huésped:
+        // un segundo clic grabaría la ocupación dos veces
+        bloquearFormulario(true);
+        GestorReservaAsincrono asincrono = new GestorReservaAsincrono(gestorReserva);
+        HiloFx.alTerminar(asincrono.crearReservaGrupal(dtosReservas, true), reservas -> mostrarExito(), error -> {
+            bloquearFormulario(false);
             PopUpController.mostrarPopUp(
                     PopUpType.ERROR,
-                    "Error al procesar la ocupación:\n" + e.getMessage()
+                    "Error al procesar la ocupación:\n" + error.getMessage()
             );
-            e.printStackTrace();
-        }
+            error.printStackTrace();
+        });
+    }
+
+    private void bloquearFormulario(boolean bloquear) {
+        btnAceptar.setDisable(bloquear);
+        btnCancelar.setDisable(bloquear);
+        gridPane.setDisable(bloquear);
     }
 
     private void mostrarExito() {
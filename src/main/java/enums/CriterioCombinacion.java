@@ -0,0 +1,17 @@
+package enums;
+
+public enum CriterioCombinacion {
+    MENOS_HABITACIONES("Menos habitaciones"),
+    MENOR_COSTO("Menor costo"),
+    MISMO_PISO("Mismo piso");
+
+    private final String descripcion;
+
+    CriterioCombinacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,16 @@
+package enums;
+
+public enum FormatoExportacion {
+    CSV("csv"),
+    JSON("json");
+
+    private final String extension;
+
+    FormatoExportacion(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
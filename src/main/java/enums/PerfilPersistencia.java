@@ -0,0 +1,56 @@
+package enums;
+
+import java.util.Locale;
+
+/**
+ * Base de datos contra la que arranca la aplicación. Se elige con -Dhotel.perfil
+ * o con la variable de entorno HOTEL_PERFIL; sin ninguna de las dos se usa REMOTO.
+ */
+public enum PerfilPersistencia {
+    // La base compartida configurada en hibernate.cfg.xml
+    REMOTO("remoto", null, false),
+    // PostgreSQL en la misma máquina, sin red: se siembra con InicializadorDatos al arrancar
+    LOCAL("local", "/perfiles/local.properties", true);
+
+    public static final String PROPIEDAD = "hotel.perfil";
+    public static final String VARIABLE_ENTORNO = "HOTEL_PERFIL";
+
+    private final String nombre;
+    private final String recurso;
+    private final boolean sembrarAlIniciar;
+
+    PerfilPersistencia(String nombre, String recurso, boolean sembrarAlIniciar) {
+        this.nombre = nombre;
+        this.recurso = recurso;
+        this.sembrarAlIniciar = sembrarAlIniciar;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Propiedades que pisan a las del cfg, o null si el perfil usa el cfg tal cual
+     */
+    public String getRecurso() {
+        return recurso;
+    }
+
+    public boolean isSembrarAlIniciar() {
+        return sembrarAlIniciar;
+    }
+
+    public static PerfilPersistencia actual() {
+        String nombre = System.getProperty(PROPIEDAD, System.getenv(VARIABLE_ENTORNO));
+        if (nombre == null || nombre.isBlank()) {
+            return REMOTO;
+        }
+        for (PerfilPersistencia perfil : values()) {
+            if (perfil.nombre.equals(nombre.trim().toLowerCase(Locale.ROOT))) {
+                return perfil;
+            }
+        }
+        throw new IllegalArgumentException("Perfil de persistencia desconocido: " + nombre
+                + " (valores posibles: remoto, local)");
+    }
+}
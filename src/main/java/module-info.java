@@ -7,6 +7,8 @@ module ar.utn.hotel.hotel_premier {
     requires java.net.http;
     requires java.desktop;
     requires org.hibernate.orm.core;
+    requires com.zaxxer.hikari;
+    requires java.sql;
     requires java.naming;
     requires jakarta.persistence;
     requires static lombok;
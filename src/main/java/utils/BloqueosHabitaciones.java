@@ -0,0 +1,166 @@
+package utils;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloqueos en memoria para los cambios de estado de habitaciones dentro del proceso.
+ *
+ * Las habitaciones se reparten en un número fijo de franjas según su número; cada
+ * franja es un ReentrantLock. Operaciones sobre habitaciones de franjas distintas
+ * nunca se esperan entre sí. Una operación sobre varias habitaciones toma sus franjas
+ * de menor a mayor y las suelta en orden inverso, así dos operaciones cruzadas no
+ * pueden bloquearse mutuamente.
+ *
+ * Las franjas se toman al entrar al caso de uso, antes de abrir la unidad de trabajo,
+ * para que sigan tomadas hasta después del commit. Tomarlas con una transacción ya
+ * abierta las soltaría antes del commit y mezclaría esperas en memoria con bloqueos de
+ * filas en la base; por eso conBloqueo lo rechaza. Dentro de una unidad sólo se puede
+ * volver a pedir franjas que el hilo ya tiene.
+ *
+ * Sólo coordina los hilos de esta aplicación: entre terminales la coherencia la dan
+ * la restricción de solapamiento de reservas y el bloqueo optimista.
+ */
+public final class BloqueosHabitaciones {
+
+    private static final int FRANJAS = 64;
+    private static final BloqueosHabitaciones INSTANCIA = new BloqueosHabitaciones();
+
+    private final ReentrantLock[] franjas = new ReentrantLock[FRANJAS];
+
+    private final LongAdder adquisiciones = new LongAdder();
+    private final LongAdder conEspera = new LongAdder();
+    private final LongAdder nanosEsperaTotal = new LongAdder();
+    private final LongAccumulator nanosEsperaMaxima = new LongAccumulator(Math::max, 0);
+
+    private BloqueosHabitaciones() {
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    public static BloqueosHabitaciones getInstancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Ejecuta la operación con las habitaciones indicadas bloqueadas para el resto del proceso
+     */
+    public <T, E extends Exception> T conBloqueo(Collection<Integer> numerosHabitaciones,
+                                                 UnidadDeTrabajo.Operacion<T, E> operacion) throws E {
+        // Índices distintos y ordenados: dos habitaciones de la misma franja la toman una vez
+        TreeSet<Integer> indices = new TreeSet<>();
+        if (numerosHabitaciones != null) {
+            for (Integer numero : numerosHabitaciones) {
+                if (numero != null) {
+                    indices.add(Math.floorMod(numero, FRANJAS));
+                }
+            }
+        }
+
+        verificarUnidadDeTrabajo(indices);
+        verificarOrden(indices);
+
+        int tomadas = 0;
+        Integer[] orden = indices.toArray(new Integer[0]);
+        try {
+            for (Integer indice : orden) {
+                tomar(franjas[indice]);
+                tomadas++;
+            }
+            return operacion.ejecutar();
+        } finally {
+            for (int i = tomadas - 1; i >= 0; i--) {
+                franjas[orden[i]].unlock();
+            }
+        }
+    }
+
+    public <E extends Exception> void conBloqueoAccion(Collection<Integer> numerosHabitaciones,
+                                                       UnidadDeTrabajo.Accion<E> accion) throws E {
+        conBloqueo(numerosHabitaciones, () -> {
+            accion.ejecutar();
+            return null;
+        });
+    }
+
+    public EstadisticasBloqueos getEstadisticas() {
+        long cantidad = adquisiciones.sum();
+        int ocupadas = 0;
+        for (ReentrantLock franja : franjas) {
+            if (franja.isLocked()) {
+                ocupadas++;
+            }
+        }
+
+        return EstadisticasBloqueos.builder()
+                .franjas(FRANJAS)
+                .adquisiciones(cantidad)
+                .conEspera(conEspera.sum())
+                .esperaPromedioMs(cantidad > 0 ? nanosAMilis(nanosEsperaTotal.sum()) / cantidad : 0)
+                .esperaMaximaMs(nanosAMilis(nanosEsperaMaxima.get()))
+                .ocupadas(ocupadas)
+                .build();
+    }
+
+    // ========== ADQUISICIÓN ==========
+
+    private void tomar(ReentrantLock franja) {
+        adquisiciones.increment();
+        if (franja.tryLock()) {
+            return;
+        }
+
+        conEspera.increment();
+        long inicio = System.nanoTime();
+        franja.lock();
+        long espera = System.nanoTime() - inicio;
+        nanosEsperaTotal.add(espera);
+        nanosEsperaMaxima.accumulate(espera);
+    }
+
+    private void verificarUnidadDeTrabajo(TreeSet<Integer> indices) {
+        if (!UnidadDeTrabajo.activa()) {
+            return;
+        }
+        for (Integer indice : indices) {
+            if (!franjas[indice].isHeldByCurrentThread()) {
+                throw new IllegalStateException("Bloqueo de habitaciones con una unidad de trabajo abierta: "
+                        + "la franja " + indice + " debe tomarse al entrar al caso de uso, antes de la transacción");
+            }
+        }
+    }
+
+    /**
+     * Una operación anidada que ya tiene franjas tomadas sólo puede agregar franjas
+     * mayores a todas las que tiene; tomar una menor rompería el orden global y podría
+     * terminar en un deadlock, así que se rechaza como error de programación.
+     */
+    private void verificarOrden(TreeSet<Integer> indices) {
+        int mayorTomada = -1;
+        for (int i = FRANJAS - 1; i >= 0; i--) {
+            if (franjas[i].isHeldByCurrentThread()) {
+                mayorTomada = i;
+                break;
+            }
+        }
+        if (mayorTomada < 0) {
+            return;
+        }
+
+        for (Integer indice : indices.headSet(mayorTomada)) {
+            if (!franjas[indice].isHeldByCurrentThread()) {
+                throw new IllegalStateException("Bloqueo de habitaciones fuera de orden: el hilo tiene la franja "
+                        + mayorTomada + " y pide la " + indice + "; las habitaciones deben bloquearse juntas");
+            }
+        }
+    }
+
+    private static double nanosAMilis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -1,7 +1,7 @@
 package utils;
 
 import ar.utn.hotel.dto.HabitacionReservaDTO;
-import ar.utn.hotel.model.Huesped;
+import ar.utn.hotel.dto.HuespedDTO;
 import enums.ContextoEstadoHabitaciones;
 import lombok.Getter;
 
@@ -9,7 +9,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 public class DataTransfer {
-    private static List<Huesped> huespedesEnBusqueda;
+    private static List<HuespedDTO> huespedesEnBusqueda;
 
     @Getter
     private static LocalDate fechaDesdeEstadoHabitaciones;
@@ -23,11 +23,11 @@ public class DataTransfer {
     @Getter
     private static List<HabitacionReservaDTO> habitacionesSeleccionadas;
 
-    public static void setHuespedesEnBusqueda(List<Huesped> huespedes) {
+    public static void setHuespedesEnBusqueda(List<HuespedDTO> huespedes) {
         DataTransfer.huespedesEnBusqueda = huespedes;
     }
 
-    public static List<Huesped> getHuespedesEnBusqueda() {
+    public static List<HuespedDTO> getHuespedesEnBusqueda() {
         return DataTransfer.huespedesEnBusqueda;
     }
 
@@ -0,0 +1,69 @@
+package utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ejecutor de los casos de uso asincrónicos de los gestores: un hilo virtual por tarea.
+ * Las tareas pasan casi todo su tiempo esperando a la base, así que no hace falta un
+ * pool acotado de hilos; lo que limita la concurrencia real es el pool de conexiones.
+ * Cada tarea corre en su propio hilo, con su propia unidad de trabajo.
+ */
+public final class EjecutorGestores {
+
+    private static final ExecutorService EJECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("gestor-", 0).factory());
+
+    @FunctionalInterface
+    public interface Tarea<T> {
+        T ejecutar() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface TareaSinResultado {
+        void ejecutar() throws Exception;
+    }
+
+    private EjecutorGestores() {
+    }
+
+    /**
+     * Ejecuta la tarea en un hilo virtual. Las excepciones (también las comprobadas)
+     * completan el futuro con error.
+     */
+    public static <T> CompletableFuture<T> ejecutar(Tarea<T> tarea) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return tarea.ejecutar();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, EJECUTOR);
+    }
+
+    public static CompletableFuture<Void> ejecutarAccion(TareaSinResultado tarea) {
+        return ejecutar(() -> {
+            tarea.ejecutar();
+            return null;
+        });
+    }
+
+    /**
+     * El ejecutor en sí, para los Service de JavaFX que cargan datos de los gestores
+     */
+    public static Executor getEjecutor() {
+        return EJECUTOR;
+    }
+
+    /**
+     * Deja de aceptar tareas; las que están en curso terminan normalmente
+     */
+    public static void cerrar() {
+        EJECUTOR.shutdown();
+    }
+}
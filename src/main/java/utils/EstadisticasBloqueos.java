@@ -0,0 +1,20 @@
+package utils;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Estadísticas de los bloqueos por habitación de los cambios de estado
+ */
+@Getter
+@Builder
+@ToString
+public class EstadisticasBloqueos {
+    private final int franjas;
+    private final long adquisiciones;   // Franjas tomadas (una operación multi-habitación toma varias)
+    private final long conEspera;       // Adquisiciones que encontraron la franja ocupada
+    private final double esperaPromedioMs;
+    private final double esperaMaximaMs;
+    private final int ocupadas;         // Franjas tomadas en este momento
+}
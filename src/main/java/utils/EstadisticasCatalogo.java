@@ -0,0 +1,28 @@
+package utils;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Estadísticas de uso de la caché de catálogos
+ */
+@Getter
+@Builder
+@ToString
+public class EstadisticasCatalogo {
+    private final long aciertos;
+    private final long fallos;          // Búsquedas de una clave que no está en el catálogo
+    private final long cargas;          // Lecturas completas de los catálogos desde la base
+    private final int tiposEstado;
+    private final int tiposHabitacion;
+
+    /**
+     * Proporción de consultas resueltas en memoria sin ir a la base
+     */
+    @ToString.Include
+    public double getTasaAciertos() {
+        long total = aciertos + fallos + cargas;
+        return total > 0 ? (double) aciertos / total : 0;
+    }
+}
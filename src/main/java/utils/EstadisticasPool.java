@@ -0,0 +1,24 @@
+package utils;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Estadísticas del pool de conexiones en un instante dado
+ */
+@Getter
+@Builder
+@ToString
+public class EstadisticasPool {
+    private final int activas;
+    private final int inactivas;
+    private final int total;
+    private final int esperando;        // Hilos esperando una conexión libre
+    private final int maximo;
+    private final long adquisiciones;
+    private final double esperaPromedioMs;
+    private final double esperaMaximaMs;
+    private final double usoPromedioMs;  // Tiempo promedio que se retiene cada conexión
+    private final long timeouts;
+}
@@ -0,0 +1,27 @@
+package utils;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Estadísticas de la política de reintentos de los casos de uso de los gestores
+ */
+@Getter
+@Builder
+@ToString
+public class EstadisticasReintentos {
+    private final long ejecuciones;     // Casos de uso iniciados con la política
+    private final long conflictos;      // Intentos que fallaron por un conflicto de concurrencia
+    private final long reintentos;
+    private final long recuperadas;     // Terminaron bien después de al menos un reintento
+    private final long agotadas;        // Siguieron en conflicto al llegar al máximo de intentos
+
+    /**
+     * Proporción de casos de uso que encontraron al menos un conflicto
+     */
+    @ToString.Include
+    public double getTasaConflictos() {
+        return ejecuciones > 0 ? (double) (recuperadas + agotadas) / ejecuciones : 0;
+    }
+}
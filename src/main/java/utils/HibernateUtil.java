@@ -1,26 +1,132 @@
 package utils;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import enums.PerfilPersistencia;
 import lombok.Getter;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
 public class HibernateUtil {
 
+    private static final String PREFIJO_POOL = "hibernate.hikari.";
+
+    // Con -Dhotel.esquema.validar=true Hibernate compara las entidades con el esquema al arrancar
+    private static final String PROPIEDAD_VALIDAR = "hotel.esquema.validar";
+
+    // Archivo de propiedades que pisa al perfil elegido (otra URL, usuario, pool...)
+    private static final String PROPIEDAD_ARCHIVO_PERFIL = "hotel.perfil.archivo";
+
+    private static final MetricasPool metricasPool = new MetricasPool();
+    private static HikariDataSource dataSource;
+
+    @Getter
+    private static final PerfilPersistencia perfil = PerfilPersistencia.actual();
+
     @Getter
     private static final SessionFactory sessionFactory = buildSessionFactory();
 
     private static SessionFactory buildSessionFactory() {
         try {
-            return new Configuration()
-                    .configure("/hibernate.cfg.xml")
-                    .buildSessionFactory();
+            Configuration configuration = new Configuration().configure("/hibernate.cfg.xml");
+            aplicarPerfil(configuration.getProperties());
+
+            // Hibernate usa el pool como DataSource en lugar de su pool interno de DriverManager
+            dataSource = crearPool(configuration.getProperties());
+            configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+
+            // El esquema lo definen las migraciones; Hibernate no lo toca
+            MigradorEsquema.migrar(dataSource);
+            if (Boolean.getBoolean(PROPIEDAD_VALIDAR)) {
+                configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "validate");
+            }
+
+            return configuration.buildSessionFactory();
         } catch (Exception ex) {
             System.err.println("Error al crear SessionFactory: " + ex);
+            if (dataSource != null) {
+                dataSource.close();
+            }
             throw new ExceptionInInitializerError(ex);
         }
     }
 
+    /**
+     * Pisa las propiedades del cfg con las del perfil elegido y, si se indicó,
+     * con las de un archivo externo
+     */
+    private static void aplicarPerfil(Properties propiedades) throws IOException {
+        if (perfil.getRecurso() != null) {
+            try (InputStream in = HibernateUtil.class.getResourceAsStream(perfil.getRecurso())) {
+                if (in == null) {
+                    throw new IllegalStateException("No se encontró el perfil " + perfil.getRecurso());
+                }
+                propiedades.load(in);
+            }
+        }
+
+        String archivo = System.getProperty(PROPIEDAD_ARCHIVO_PERFIL);
+        if (archivo != null) {
+            try (InputStream in = Files.newInputStream(Path.of(archivo))) {
+                propiedades.load(in);
+            }
+        }
+
+        System.out.println("Perfil de persistencia: " + perfil.getNombre()
+                + " (" + propiedades.getProperty(AvailableSettings.JAKARTA_JDBC_URL) + ")");
+    }
+
+    /**
+     * Arma el pool con los datos de conexión del cfg y las propiedades hibernate.hikari.*
+     */
+    private static HikariDataSource crearPool(Properties propiedades) {
+        Properties propiedadesPool = new Properties();
+        for (String nombre : propiedades.stringPropertyNames()) {
+            if (nombre.startsWith(PREFIJO_POOL)) {
+                propiedadesPool.setProperty(nombre.substring(PREFIJO_POOL.length()), propiedades.getProperty(nombre));
+            }
+        }
+
+        HikariConfig config = new HikariConfig(propiedadesPool);
+        config.setDriverClassName(propiedades.getProperty(AvailableSettings.JAKARTA_JDBC_DRIVER));
+        config.setJdbcUrl(propiedades.getProperty(AvailableSettings.JAKARTA_JDBC_URL));
+        config.setUsername(propiedades.getProperty(AvailableSettings.JAKARTA_JDBC_USER));
+        config.setPassword(propiedades.getProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD));
+        // Hibernate maneja las transacciones: las conexiones salen del pool sin autocommit
+        config.setAutoCommit(false);
+        config.setMetricsTrackerFactory(metricasPool);
+
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Sesión para un DAO: la de la unidad de trabajo activa en el hilo, si la hay,
+     * o una nueva sesión propia en caso contrario
+     */
+    public static Session abrirSesion() {
+        Session compartida = UnidadDeTrabajo.sesionActual();
+        return compartida != null ? compartida : getSessionFactory().openSession();
+    }
+
+    /**
+     * Foto de las estadísticas del pool de conexiones en este momento
+     */
+    public static EstadisticasPool getEstadisticasPool() {
+        return metricasPool.getEstadisticas();
+    }
+
     public static void shutdown() {
         getSessionFactory().close();
+        if (dataSource != null) {
+            dataSource.close();
+        }
     }
 }
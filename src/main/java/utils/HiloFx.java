@@ -0,0 +1,55 @@
+package utils;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Devuelve al hilo de JavaFX el resultado de una operación asincrónica.
+ * Los controladores lanzan la consulta con los gestores asincrónicos y tocan los
+ * controles sólo desde los callbacks, que siempre corren con Platform.runLater.
+ */
+public final class HiloFx {
+
+    // Para encadenar etapas en el hilo de JavaFX: futuro.thenAcceptAsync(..., HiloFx.EJECUTOR)
+    public static final Executor EJECUTOR = tarea -> {
+        if (Platform.isFxApplicationThread()) {
+            tarea.run();
+        } else {
+            Platform.runLater(tarea);
+        }
+    };
+
+    private HiloFx() {
+    }
+
+    /**
+     * Cuando el futuro termina, llama a alExito o a alFallar en el hilo de JavaFX.
+     * alFallar recibe la excepción original, sin el envoltorio de CompletableFuture.
+     */
+    public static <T> CompletableFuture<Void> alTerminar(CompletableFuture<T> futuro,
+                                                         Consumer<? super T> alExito,
+                                                         Consumer<Throwable> alFallar) {
+        return futuro.handleAsync((resultado, error) -> {
+            if (error != null) {
+                alFallar.accept(causaReal(error));
+            } else {
+                alExito.accept(resultado);
+            }
+            return null;
+        }, EJECUTOR);
+    }
+
+    public static Throwable causaReal(Throwable error) {
+        Throwable causa = error;
+        while ((causa instanceof CompletionException || causa instanceof ExecutionException)
+                && causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        return causa;
+    }
+}
@@ -0,0 +1,70 @@
+package utils;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recolector de métricas del pool de conexiones. HikariCP le informa cada adquisición,
+ * uso y timeout de conexión; los contadores de conexiones (activas, inactivas, en espera)
+ * se leen del propio pool al pedir las estadísticas.
+ */
+class MetricasPool implements MetricsTrackerFactory {
+
+    private final LongAdder adquisiciones = new LongAdder();
+    private final LongAdder nanosEsperaTotal = new LongAdder();
+    private final LongAccumulator nanosEsperaMaxima = new LongAccumulator(Math::max, 0);
+    private final LongAdder milisUsoTotal = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    private volatile PoolStats estadoPool;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.estadoPool = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                adquisiciones.increment();
+                nanosEsperaTotal.add(elapsedAcquiredNanos);
+                nanosEsperaMaxima.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                milisUsoTotal.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    EstadisticasPool getEstadisticas() {
+        PoolStats pool = estadoPool;
+        long cantidad = adquisiciones.sum();
+
+        return EstadisticasPool.builder()
+                .activas(pool != null ? pool.getActiveConnections() : 0)
+                .inactivas(pool != null ? pool.getIdleConnections() : 0)
+                .total(pool != null ? pool.getTotalConnections() : 0)
+                .esperando(pool != null ? pool.getPendingThreads() : 0)
+                .maximo(pool != null ? pool.getMaxConnections() : 0)
+                .adquisiciones(cantidad)
+                .esperaPromedioMs(cantidad > 0 ? nanosAMilis(nanosEsperaTotal.sum()) / cantidad : 0)
+                .esperaMaximaMs(nanosAMilis(nanosEsperaMaxima.get()))
+                .usoPromedioMs(cantidad > 0 ? (double) milisUsoTotal.sum() / cantidad : 0)
+                .timeouts(timeouts.sum())
+                .build();
+    }
+
+    private static double nanosAMilis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
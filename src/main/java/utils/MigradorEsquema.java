@@ -0,0 +1,235 @@
+package utils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Aplica las migraciones versionadas del esquema antes de que arranque Hibernate.
+ *
+ * Cada script de db/migraciones se ejecuta una sola vez, en orden de versión y en su
+ * propia transacción, y queda registrado en historial_migraciones con su checksum.
+ * Si un script ya aplicado cambió, el arranque se corta: una migración publicada no
+ * se edita, se agrega una nueva versión. Un bloqueo consultivo evita que dos
+ * instancias migren a la vez.
+ */
+public final class MigradorEsquema {
+
+    private static final String CARPETA = "/db/migraciones/";
+
+    // Scripts en orden de aplicación; el nombre es V<version>__<descripcion>.sql
+    private static final String[] MIGRACIONES = {
+            "V1__esquema_base.sql",
+            "V2__secuencias.sql",
+            "V3__indices_consultas.sql",
+            "V4__reservas_sin_solapamiento.sql",
+            "V5__versiones_bloqueo_optimista.sql",
+            "V6__puntero_estado_actual.sql"
+    };
+
+    private static final long CLAVE_BLOQUEO = 0x486f74656cL;  // "Hotel"
+
+    private static final String SQL_HISTORIAL = """
+            CREATE TABLE IF NOT EXISTS historial_migraciones (
+                version     INTEGER PRIMARY KEY,
+                descripcion VARCHAR(200) NOT NULL,
+                script      VARCHAR(200) NOT NULL,
+                checksum    BIGINT NOT NULL,
+                aplicada_en TIMESTAMP NOT NULL DEFAULT now(),
+                duracion_ms BIGINT NOT NULL
+            )
+            """;
+
+    private MigradorEsquema() {
+    }
+
+    /**
+     * Aplica las migraciones pendientes. Devuelve cuántas se aplicaron.
+     */
+    public static int migrar(DataSource dataSource) {
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            bloquear(conexion, true);
+            try {
+                crearHistorial(conexion);
+                Map<Integer, Long> aplicadas = leerHistorial(conexion);
+
+                int nuevas = 0;
+                for (String script : MIGRACIONES) {
+                    if (aplicar(conexion, script, aplicadas)) {
+                        nuevas++;
+                    }
+                }
+                return nuevas;
+            } finally {
+                bloquear(conexion, false);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error al migrar el esquema: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean aplicar(Connection conexion, String script, Map<Integer, Long> aplicadas)
+            throws SQLException {
+        int version = versionDe(script);
+        String contenido = leerScript(script);
+        long checksum = checksum(contenido);
+
+        Long checksumAplicado = aplicadas.get(version);
+        if (checksumAplicado != null) {
+            if (checksumAplicado != checksum) {
+                throw new IllegalStateException("La migración " + script
+                        + " cambió después de aplicarse; agregue una versión nueva en lugar de editarla");
+            }
+            return false;
+        }
+
+        long inicio = System.currentTimeMillis();
+        try (Statement st = conexion.createStatement()) {
+            for (String sentencia : separarSentencias(contenido)) {
+                st.execute(sentencia);
+            }
+
+            long duracion = System.currentTimeMillis() - inicio;
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "INSERT INTO historial_migraciones (version, descripcion, script, checksum, duracion_ms) "
+                            + "VALUES (?, ?, ?, ?, ?)")) {
+                ps.setInt(1, version);
+                ps.setString(2, descripcionDe(script));
+                ps.setString(3, script);
+                ps.setLong(4, checksum);
+                ps.setLong(5, duracion);
+                ps.executeUpdate();
+            }
+            conexion.commit();
+
+            System.out.println("✓ Migración " + script + " aplicada en " + duracion + " ms");
+            return true;
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw new SQLException("falló " + script + ": " + e.getMessage(), e);
+        }
+    }
+
+    // ========== HISTORIAL ==========
+
+    private static void crearHistorial(Connection conexion) throws SQLException {
+        try (Statement st = conexion.createStatement()) {
+            st.execute(SQL_HISTORIAL);
+        }
+        conexion.commit();
+    }
+
+    private static Map<Integer, Long> leerHistorial(Connection conexion) throws SQLException {
+        Map<Integer, Long> aplicadas = new HashMap<>();
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM historial_migraciones")) {
+            while (rs.next()) {
+                aplicadas.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        conexion.commit();
+        return aplicadas;
+    }
+
+    /**
+     * Toma o libera el bloqueo consultivo de la sesión (sobrevive a los commits intermedios)
+     */
+    private static void bloquear(Connection conexion, boolean tomar) throws SQLException {
+        String funcion = tomar ? "pg_advisory_lock" : "pg_advisory_unlock";
+        try (PreparedStatement ps = conexion.prepareStatement("SELECT " + funcion + "(?)")) {
+            ps.setLong(1, CLAVE_BLOQUEO);
+            ps.execute();
+        }
+        conexion.commit();
+    }
+
+    // ========== SCRIPTS ==========
+
+    private static String leerScript(String script) {
+        try (InputStream in = MigradorEsquema.class.getResourceAsStream(CARPETA + script)) {
+            if (in == null) {
+                throw new IllegalStateException("No se encontró la migración " + CARPETA + script);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al leer la migración " + script + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static int versionDe(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String descripcionDe(String script) {
+        return script.substring(script.indexOf("__") + 2, script.lastIndexOf('.')).replace('_', ' ');
+    }
+
+    /**
+     * CRC32 del script con los fines de línea normalizados, para que el mismo archivo
+     * dé el mismo valor en Windows y en Linux
+     */
+    private static long checksum(String contenido) {
+        CRC32 crc = new CRC32();
+        crc.update(contenido.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Separa el script en sentencias por ';'. Respeta los textos entre comillas
+     * simples, los comentarios de línea y los bloques $$ ... $$ (DO, funciones).
+     */
+    static List<String> separarSentencias(String contenido) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean enTexto = false;
+        boolean enBloque = false;
+
+        for (int i = 0; i < contenido.length(); i++) {
+            char c = contenido.charAt(i);
+            char siguiente = i + 1 < contenido.length() ? contenido.charAt(i + 1) : '\0';
+
+            if (!enTexto && !enBloque && c == '-' && siguiente == '-') {
+                int finLinea = contenido.indexOf('\n', i);
+                i = finLinea < 0 ? contenido.length() : finLinea;
+                actual.append('\n');
+                continue;
+            }
+            if (!enTexto && c == '$' && siguiente == '$') {
+                enBloque = !enBloque;
+                actual.append("$$");
+                i++;
+                continue;
+            }
+            if (!enBloque && c == '\'') {
+                enTexto = !enTexto;
+            }
+            if (!enTexto && !enBloque && c == ';') {
+                agregarSentencia(sentencias, actual);
+                continue;
+            }
+            actual.append(c);
+        }
+        agregarSentencia(sentencias, actual);
+        return sentencias;
+    }
+
+    private static void agregarSentencia(List<String> sentencias, StringBuilder actual) {
+        String sentencia = actual.toString().strip();
+        if (!sentencia.isEmpty()) {
+            sentencias.add(sentencia);
+        }
+        actual.setLength(0);
+    }
+}
@@ -0,0 +1,132 @@
+package utils;
+
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.JDBCException;
+import org.hibernate.StaleStateException;
+import org.hibernate.dialect.lock.OptimisticEntityLockException;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuta un caso de uso en una unidad de trabajo y, si falla por un conflicto de
+ * concurrencia (otra terminal modificó la misma fila, un deadlock o un fallo de
+ * serialización), lo vuelve a ejecutar completo en una unidad nueva.
+ *
+ * La cantidad de intentos está acotada y entre uno y otro se espera un tiempo que
+ * crece exponencialmente, con una parte al azar para que dos terminales en conflicto
+ * no vuelvan a chocar en el mismo instante. Como lo que hace la unidad se deshace y
+ * los avisos posteriores al commit se descartan, reintentar no duplica efectos.
+ *
+ * Dentro de una unidad ya activa no se reintenta: la transacción externa quedó
+ * marcada para deshacerse y es ella la que debe volver a empezar.
+ */
+public final class PoliticaReintentos {
+
+    private static final int MAX_INTENTOS = 4;
+    private static final long ESPERA_INICIAL_MS = 25;
+    private static final long ESPERA_MAXIMA_MS = 400;
+
+    // SQLSTATE de PostgreSQL: serialization_failure y deadlock_detected
+    private static final Set<String> ESTADOS_REINTENTABLES = Set.of("40001", "40P01");
+
+    private static final LongAdder ejecuciones = new LongAdder();
+    private static final LongAdder conflictos = new LongAdder();
+    private static final LongAdder reintentos = new LongAdder();
+    private static final LongAdder recuperadas = new LongAdder();
+    private static final LongAdder agotadas = new LongAdder();
+
+    private PoliticaReintentos() {
+    }
+
+    /**
+     * Igual que UnidadDeTrabajo.ejecutar, pero reintentando los conflictos de concurrencia
+     */
+    public static <T, E extends Exception> T ejecutar(UnidadDeTrabajo.Operacion<T, E> operacion) throws E {
+        if (UnidadDeTrabajo.activa()) {
+            return UnidadDeTrabajo.ejecutar(operacion);
+        }
+
+        ejecuciones.increment();
+        for (int intento = 1; ; intento++) {
+            try {
+                T resultado = UnidadDeTrabajo.ejecutar(operacion);
+                if (intento > 1) {
+                    recuperadas.increment();
+                }
+                return resultado;
+            } catch (Exception e) {
+                if (!esConflicto(e)) {
+                    throw e;
+                }
+                conflictos.increment();
+                if (intento >= MAX_INTENTOS) {
+                    agotadas.increment();
+                    System.err.println("Conflicto de concurrencia sin resolver tras "
+                            + MAX_INTENTOS + " intentos: " + e.getMessage());
+                    throw e;
+                }
+                if (!esperar(intento)) {
+                    throw e;
+                }
+                reintentos.increment();
+            }
+        }
+    }
+
+    public static <E extends Exception> void ejecutarAccion(UnidadDeTrabajo.Accion<E> accion) throws E {
+        ejecutar(() -> {
+            accion.ejecutar();
+            return null;
+        });
+    }
+
+    /**
+     * Foto de los contadores en este momento
+     */
+    public static EstadisticasReintentos getEstadisticas() {
+        return EstadisticasReintentos.builder()
+                .ejecuciones(ejecuciones.sum())
+                .conflictos(conflictos.sum())
+                .reintentos(reintentos.sum())
+                .recuperadas(recuperadas.sum())
+                .agotadas(agotadas.sum())
+                .build();
+    }
+
+    /**
+     * Indica si la excepción (o alguna de sus causas) es un conflicto que puede
+     * resolverse repitiendo la transacción
+     */
+    static boolean esConflicto(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockException
+                    || t instanceof StaleStateException
+                    || t instanceof OptimisticEntityLockException) {
+                return true;
+            }
+            String estado = t instanceof JDBCException jdbc ? jdbc.getSQLState()
+                    : t instanceof SQLException sql ? sql.getSQLState() : null;
+            if (estado != null && ESTADOS_REINTENTABLES.contains(estado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Espera antes del próximo intento. Devuelve false si el hilo fue interrumpido.
+     */
+    private static boolean esperar(int intento) {
+        long tope = Math.min(ESPERA_MAXIMA_MS, ESPERA_INICIAL_MS << (intento - 1));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(tope / 2, tope + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package utils;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unidad de trabajo ligada al hilo actual: una sesión y una transacción que
+ * abarcan un caso de uso completo de un gestor.
+ *
+ * Mientras hay una unidad activa, HibernateUtil.abrirSesion() devuelve la sesión
+ * de la unidad envuelta de forma que los DAO la usan sin cambios: close() no la
+ * cierra, commit() sólo hace flush y rollback() marca la unidad para deshacerse.
+ * La transacción real se confirma o se deshace una sola vez, al terminar la
+ * operación más externa. Las unidades anidadas se suman a la existente.
+ *
+ * Lo registrado con alConfirmar() (por ejemplo los avisos de cambio de estado)
+ * se ejecuta recién después del commit real, y se descarta si hay rollback.
+ */
+public final class UnidadDeTrabajo {
+
+    private static final ThreadLocal<UnidadDeTrabajo> ACTUAL = new ThreadLocal<>();
+
+    private final Session session;
+    private final Transaction transaction;
+    private final Session sesionCompartida;
+    private final Transaction transaccionCompartida;
+    private final List<Runnable> alConfirmar = new ArrayList<>();
+    private boolean soloRollback;
+
+    @FunctionalInterface
+    public interface Operacion<T, E extends Exception> {
+        T ejecutar() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Accion<E extends Exception> {
+        void ejecutar() throws E;
+    }
+
+    private UnidadDeTrabajo(Session session) {
+        this.session = session;
+        this.transaction = session.beginTransaction();
+        this.transaccionCompartida = crearTransaccionCompartida();
+        this.sesionCompartida = crearSesionCompartida();
+    }
+
+    /**
+     * Ejecuta la operación dentro de una unidad de trabajo. Si el hilo ya tiene una
+     * unidad activa la operación se suma a ella; si no, se abre una nueva que se
+     * confirma al terminar o se deshace si la operación lanza una excepción.
+     */
+    public static <T, E extends Exception> T ejecutar(Operacion<T, E> operacion) throws E {
+        UnidadDeTrabajo existente = ACTUAL.get();
+        if (existente != null) {
+            try {
+                return operacion.ejecutar();
+            } catch (Exception e) {
+                // La excepción puede capturarse más arriba, pero la unidad ya no puede confirmarse
+                existente.soloRollback = true;
+                throw e;
+            }
+        }
+
+        UnidadDeTrabajo unidad = new UnidadDeTrabajo(HibernateUtil.getSessionFactory().openSession());
+        ACTUAL.set(unidad);
+        T resultado;
+        try {
+            resultado = operacion.ejecutar();
+            unidad.confirmar();
+        } catch (Exception e) {
+            unidad.deshacer();
+            throw e;
+        } finally {
+            ACTUAL.remove();
+            unidad.session.close();
+        }
+
+        unidad.ejecutarAlConfirmar();
+        return resultado;
+    }
+
+    public static <E extends Exception> void ejecutarAccion(Accion<E> accion) throws E {
+        ejecutar(() -> {
+            accion.ejecutar();
+            return null;
+        });
+    }
+
+    /**
+     * Indica si el hilo actual está dentro de una unidad de trabajo
+     */
+    public static boolean activa() {
+        return ACTUAL.get() != null;
+    }
+
+    /**
+     * Ejecuta la tarea después del commit de la unidad activa, o de inmediato si no hay ninguna
+     */
+    public static void alConfirmar(Runnable tarea) {
+        UnidadDeTrabajo unidad = ACTUAL.get();
+        if (unidad != null) {
+            unidad.alConfirmar.add(tarea);
+        } else {
+            tarea.run();
+        }
+    }
+
+    /**
+     * Acción que corta, desde otro hilo, la consulta que la unidad activa esté ejecutando.
+     * La operación recibe el error de la consulta cortada y la unidad se deshace.
+     * Sin unidad activa devuelve una acción que no hace nada.
+     */
+    public static Runnable canceladorDeConsultas() {
+        UnidadDeTrabajo unidad = ACTUAL.get();
+        if (unidad == null) {
+            return () -> {
+            };
+        }
+
+        Session session = unidad.session;
+        return () -> {
+            try {
+                if (session.isOpen()) {
+                    session.cancelQuery();
+                }
+            } catch (Exception e) {
+                // La consulta pudo haber terminado justo antes: no queda nada que cortar
+            }
+        };
+    }
+
+    /**
+     * Sesión de la unidad activa tal como la ven los DAO, o null si no hay unidad
+     */
+    static Session sesionActual() {
+        UnidadDeTrabajo unidad = ACTUAL.get();
+        return unidad != null ? unidad.sesionCompartida : null;
+    }
+
+    // ========== CICLO DE VIDA ==========
+
+    private void confirmar() {
+        if (soloRollback) {
+            throw new IllegalStateException(
+                    "La unidad de trabajo quedó marcada para deshacerse por un error en una operación anterior");
+        }
+        transaction.commit();
+    }
+
+    private void deshacer() {
+        alConfirmar.clear();
+        try {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+        } catch (Exception e) {
+            System.err.println("Error al deshacer la unidad de trabajo: " + e.getMessage());
+        }
+    }
+
+    private void ejecutarAlConfirmar() {
+        for (Runnable tarea : alConfirmar) {
+            try {
+                tarea.run();
+            } catch (Exception e) {
+                System.err.println("Error en una tarea posterior al commit: " + e.getMessage());
+            }
+        }
+    }
+
+    // ========== SESIÓN COMPARTIDA ==========
+
+    private Session crearSesionCompartida() {
+        return (Session) Proxy.newProxyInstance(
+                Session.class.getClassLoader(),
+                new Class<?>[]{Session.class},
+                (proxy, metodo, args) -> switch (metodo.getName()) {
+                    case "close" -> null;
+                    case "beginTransaction", "getTransaction" -> transaccionCompartida;
+                    default -> delegar(session, metodo, args);
+                });
+    }
+
+    private Transaction crearTransaccionCompartida() {
+        return (Transaction) Proxy.newProxyInstance(
+                Transaction.class.getClassLoader(),
+                new Class<?>[]{Transaction.class},
+                (proxy, metodo, args) -> switch (metodo.getName()) {
+                    case "begin" -> null;
+                    case "commit" -> {
+                        // Los errores de escritura aparecen en el DAO que los provoca
+                        session.flush();
+                        yield null;
+                    }
+                    case "rollback", "setRollbackOnly", "markRollbackOnly" -> {
+                        soloRollback = true;
+                        yield null;
+                    }
+                    case "getRollbackOnly" -> soloRollback;
+                    default -> delegar(transaction, metodo, args);
+                });
+    }
+
+    private static Object delegar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
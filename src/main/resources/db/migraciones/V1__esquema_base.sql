@@ -0,0 +1,101 @@
+-- Esquema base del hotel, equivalente al que generaba hbm2ddl=update.
+-- Todo es IF NOT EXISTS: en una base creada por Hibernate esta versión no cambia nada
+-- y sólo queda registrada como punto de partida del historial.
+
+CREATE TABLE IF NOT EXISTS tipo_estado (
+    id      INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    estado  VARCHAR(255) NOT NULL UNIQUE
+            CHECK (estado IN ('DISPONIBLE', 'OCUPADA', 'MANTENIMIENTO', 'RESERVADA'))
+);
+
+CREATE TABLE IF NOT EXISTS tipo_habitacion (
+    id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre      VARCHAR(255) NOT NULL UNIQUE,
+    descripcion VARCHAR(255),
+    capacidad   INTEGER NOT NULL,
+    costo_noche DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS direccion (
+    id_direccion BIGINT PRIMARY KEY,
+    calle        VARCHAR(255),
+    numero       VARCHAR(255),
+    departamento VARCHAR(255),
+    piso         VARCHAR(255),
+    codpostal    VARCHAR(255),
+    localidad    VARCHAR(255),
+    provincia    VARCHAR(255),
+    pais         VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS huesped (
+    id_huesped      BIGINT PRIMARY KEY,
+    nombre          VARCHAR(80) NOT NULL,
+    apellido        VARCHAR(80) NOT NULL,
+    numerodocumento VARCHAR(20) NOT NULL,
+    tipodocumento   VARCHAR(20) NOT NULL,
+    telefono        VARCHAR(30),
+    email           VARCHAR(100),
+    cuit            VARCHAR(15),
+    posicioniva     VARCHAR(20),
+    fechanacimiento VARCHAR(10),
+    ocupacion       VARCHAR(50),
+    nacionalidad    VARCHAR(50),
+    id_direccion    BIGINT REFERENCES direccion (id_direccion)
+);
+
+CREATE TABLE IF NOT EXISTS habitacion (
+    numero             INTEGER PRIMARY KEY,
+    id_tipo_habitacion INTEGER NOT NULL REFERENCES tipo_habitacion (id),
+    piso               INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS estado_habitacion (
+    id                INTEGER PRIMARY KEY,
+    numero_habitacion INTEGER NOT NULL REFERENCES habitacion (numero),
+    id_tipo_estado    INTEGER NOT NULL REFERENCES tipo_estado (id),
+    fecha_desde       DATE NOT NULL,
+    fecha_hasta       DATE
+);
+
+CREATE TABLE IF NOT EXISTS reserva (
+    id                BIGINT PRIMARY KEY,
+    id_huesped        BIGINT NOT NULL REFERENCES huesped (id_huesped),
+    numero_habitacion INTEGER NOT NULL REFERENCES habitacion (numero),
+    fecha_inicio      DATE NOT NULL,
+    fecha_fin         DATE NOT NULL,
+    cant_huespedes    INTEGER NOT NULL,
+    descuento         DOUBLE PRECISION
+);
+
+CREATE TABLE IF NOT EXISTS estadia (
+    id_estadia        INTEGER PRIMARY KEY,
+    id_reserva        BIGINT NOT NULL UNIQUE REFERENCES reserva (id),
+    numero_habitacion INTEGER NOT NULL REFERENCES habitacion (numero),
+    fecha_inicio      DATE NOT NULL,
+    fecha_fin         DATE NOT NULL,
+    hora_check_in     TIMESTAMP(6),
+    hora_check_out    TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS ocupacion_diaria (
+    fecha              DATE NOT NULL,
+    numero_habitacion  INTEGER NOT NULL,
+    id_tipo_habitacion INTEGER NOT NULL,
+    estado             VARCHAR(255) NOT NULL
+                       CHECK (estado IN ('DISPONIBLE', 'OCUPADA', 'MANTENIMIENTO', 'RESERVADA')),
+    PRIMARY KEY (fecha, numero_habitacion)
+);
+
+CREATE TABLE IF NOT EXISTS estado_habitacion_historico (
+    id                INTEGER PRIMARY KEY,
+    numero_habitacion INTEGER NOT NULL,
+    id_tipo_estado    INTEGER NOT NULL,
+    fecha_desde       DATE NOT NULL,
+    fecha_hasta       DATE NOT NULL,
+    fecha_archivado   DATE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_huesped_apellido_nombre ON huesped (apellido, nombre, id_huesped);
+CREATE INDEX IF NOT EXISTS idx_reserva_fecha_inicio ON reserva (fecha_inicio, id);
+CREATE INDEX IF NOT EXISTS idx_estadia_fecha_inicio ON estadia (fecha_inicio, id_estadia);
@@ -0,0 +1,21 @@
+-- Secuencias de las entidades con ids por secuencia (allocationSize = 50).
+-- Las tablas que antes usaban IDENTITY ya tienen filas: cada secuencia se adelanta
+-- por encima del id máximo de su tabla más un bloque completo del optimizador pooled,
+-- para que los ids que asigna Hibernate nunca choquen. Nunca la hace retroceder.
+
+CREATE SEQUENCE IF NOT EXISTS huesped_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS direccion_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS reserva_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS estadia_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS estado_habitacion_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('huesped_seq', GREATEST((SELECT COALESCE(MAX(id_huesped), 0) FROM huesped) + 50,
+                                      (SELECT last_value FROM huesped_seq)));
+SELECT setval('direccion_seq', GREATEST((SELECT COALESCE(MAX(id_direccion), 0) FROM direccion) + 50,
+                                        (SELECT last_value FROM direccion_seq)));
+SELECT setval('reserva_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM reserva) + 50,
+                                      (SELECT last_value FROM reserva_seq)));
+SELECT setval('estadia_seq', GREATEST((SELECT COALESCE(MAX(id_estadia), 0) FROM estadia) + 50,
+                                      (SELECT last_value FROM estadia_seq)));
+SELECT setval('estado_habitacion_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM estado_habitacion) + 50,
+                                                (SELECT last_value FROM estado_habitacion_seq)));
@@ -0,0 +1,31 @@
+-- Índices para los predicados que se ejecutan en cada pantalla.
+
+-- Estado vigente y solapamientos de estados por habitación
+CREATE INDEX IF NOT EXISTS idx_estado_habitacion_habitacion_fechas
+    ON estado_habitacion (numero_habitacion, fecha_desde, fecha_hasta);
+
+-- Disponibilidad: reservas de una habitación que se solapan con un rango
+CREATE INDEX IF NOT EXISTS idx_reserva_habitacion_fechas
+    ON reserva (numero_habitacion, fecha_inicio, fecha_fin);
+
+-- Reservas de un huésped
+CREATE INDEX IF NOT EXISTS idx_reserva_huesped
+    ON reserva (id_huesped);
+
+-- Estadías de una habitación en un rango
+CREATE INDEX IF NOT EXISTS idx_estadia_habitacion_fechas
+    ON estadia (numero_habitacion, fecha_inicio, fecha_fin);
+
+-- Búsqueda de huésped por documento (alta y verificación de duplicados)
+CREATE INDEX IF NOT EXISTS idx_huesped_documento
+    ON huesped (numerodocumento, tipodocumento);
+
+-- Reutilización de direcciones: DireccionDAO.buscarPorDatos compara los ocho campos
+CREATE INDEX IF NOT EXISTS idx_direccion_datos
+    ON direccion (calle, numero, departamento, piso, codpostal, localidad, provincia, pais);
+
+ANALYZE estado_habitacion;
+ANALYZE reserva;
+ANALYZE estadia;
+ANALYZE huesped;
+ANALYZE direccion;
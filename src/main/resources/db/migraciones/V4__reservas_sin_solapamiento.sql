@@ -0,0 +1,29 @@
+-- Dos reservas de la misma habitación no pueden solaparse. La base lo garantiza aunque
+-- dos terminales validen y graben al mismo tiempo; reservas de habitaciones distintas
+-- no se bloquean entre sí. daterange es [inicio, fin): el día de salida de una reserva
+-- puede ser el de entrada de la siguiente, igual que en la validación de ReservaDAOImpl.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Si ya hay solapamientos la restricción no se puede crear: se informan para corregirlos a mano
+DO $$
+DECLARE
+    solapadas TEXT;
+BEGIN
+    SELECT string_agg(a.id || ' y ' || b.id || ' (habitación ' || a.numero_habitacion || ')', ', ')
+    INTO solapadas
+    FROM reserva a
+             JOIN reserva b
+                  ON b.numero_habitacion = a.numero_habitacion
+                      AND b.id > a.id
+                      AND daterange(a.fecha_inicio, a.fecha_fin) && daterange(b.fecha_inicio, b.fecha_fin);
+
+    IF solapadas IS NOT NULL THEN
+        RAISE EXCEPTION 'Hay reservas solapadas que deben corregirse antes de migrar: %', solapadas;
+    END IF;
+END
+$$;
+
+ALTER TABLE reserva
+    ADD CONSTRAINT reserva_sin_solapamiento
+    EXCLUDE USING gist (numero_habitacion WITH =, daterange(fecha_inicio, fecha_fin) WITH &&);
@@ -0,0 +1,7 @@
+-- Columna de versión para el bloqueo optimista (@Version) de las entidades que
+-- editan varias terminales a la vez. Las filas existentes arrancan en 0.
+
+ALTER TABLE habitacion ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE reserva ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE estadia ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE estado_habitacion ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
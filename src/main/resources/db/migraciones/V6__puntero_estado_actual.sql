@@ -0,0 +1,22 @@
+-- Puntero de cada habitación a su estado vigente (Habitacion.estadoActual) y la fecha
+-- en que se calculó. En una base creada por hbm2ddl la tabla habitacion ya existe sin
+-- estas columnas, así que se agregan aparte de su CREATE TABLE.
+
+ALTER TABLE habitacion ADD COLUMN IF NOT EXISTS id_estado_actual INTEGER;
+ALTER TABLE habitacion ADD COLUMN IF NOT EXISTS estado_actual_al DATE;
+
+-- habitacion y estado_habitacion se referencian entre sí: esta clave va aparte.
+-- Se busca por tablas y no por nombre porque hbm2ddl le ponía un nombre generado.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1
+                   FROM pg_constraint
+                   WHERE contype = 'f'
+                     AND conrelid = 'habitacion'::regclass
+                     AND confrelid = 'estado_habitacion'::regclass) THEN
+        ALTER TABLE habitacion
+            ADD CONSTRAINT fk_habitacion_estado_actual
+            FOREIGN KEY (id_estado_actual) REFERENCES estado_habitacion (id);
+    END IF;
+END
+$$;